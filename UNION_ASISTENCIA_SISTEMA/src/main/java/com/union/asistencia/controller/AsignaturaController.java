@@ -67,6 +67,7 @@ public class AsignaturaController extends BaseController {
         configurarEventos();
 
         tableView.setItems(asignaturasList);
+        mostrarProgresoEn(tableView);
     }
 
     private void inicializar() {
@@ -108,8 +109,8 @@ public class AsignaturaController extends BaseController {
                 "Teología"
         );
 
-        // Cargar docentes
-        docentesList.setAll(docenteDAO.obtenerTodos());
+        // Cargar docentes (en segundo plano)
+        cargarEnSegundoPlano("docentes", docenteDAO::obtenerTodos, docentesList::setAll);
         cbxDocente.setItems(docentesList);
 
         // Configurar display para docentes
@@ -161,7 +162,7 @@ public class AsignaturaController extends BaseController {
     }
 
     private void cargarDatos() {
-        asignaturasList.setAll(asignaturaDAO.obtenerTodos());
+        cargarEnSegundoPlano("asignaturas", asignaturaDAO::obtenerTodos, asignaturasList::setAll);
     }
 
     @FXML
@@ -245,7 +246,7 @@ public class AsignaturaController extends BaseController {
         if (criterio.isEmpty()) {
             cargarDatos();
         } else {
-            asignaturasList.setAll(asignaturaDAO.buscarPorNombre(criterio));
+            cargarEnSegundoPlano("asignaturas", () -> asignaturaDAO.buscarPorNombre(criterio), asignaturasList::setAll);
         }
     }
 
@@ -1,29 +1,43 @@
 package com.union.asistencia.controller;
 
 import com.union.asistencia.dao.AsistenciaDAO;
+import com.union.asistencia.dao.AsistenciaEventoDAO;
 import com.union.asistencia.dao.EstudianteDAO;
 import com.union.asistencia.dao.AsignaturaDAO;
 import com.union.asistencia.dao.DocenteDAO;
 import com.union.asistencia.dao.EventoDAO;
+import com.union.asistencia.dao.ResultadoRegistro;
 import com.union.asistencia.model.*;
+import com.union.asistencia.service.EscanerQRContinuo;
+import com.union.asistencia.service.ImportadorQRLote;
+import com.union.asistencia.service.ValidadorEntradaEvento;
+import com.union.asistencia.util.DirectorioFrameSource;
 import com.union.asistencia.util.ExportUtils;
+import com.union.asistencia.util.FrameSource;
 import com.union.asistencia.util.QRGenerator;
 import com.union.asistencia.util.QRService;
 import com.union.asistencia.util.QRReader;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.stage.DirectoryChooser;
 import lombok.extern.java.Log;
 
+import java.io.File;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Log
 public class AsistenciaController extends BaseController {
@@ -54,9 +68,12 @@ public class AsistenciaController extends BaseController {
     @FXML private TableColumn<Asistencia, String> colObservaciones;
 
     // ==================== COMPONENTES DEL FORMULARIO ====================
-    /** Selector de fecha para filtros */
+    /** Selector de fecha para filtros (primer día del rango) */
     @FXML private DatePicker dpFecha;
 
+    /** Último día del rango de filtro; vacío filtra solo el día de dpFecha */
+    @FXML private DatePicker dpFechaHasta;
+
     /** ComboBox para seleccionar estudiante */
     @FXML private ComboBox<Estudiante> cbxEstudiante;
 
@@ -78,6 +95,12 @@ public class AsistenciaController extends BaseController {
     /** ComboBox para filtrar por asignatura en la tabla */
     @FXML private ComboBox<Asignatura> cbxAsignaturaFiltro;
 
+    /** ComboBox para filtrar por estado en la tabla */
+    @FXML private ComboBox<String> cbxEstadoFiltro;
+
+    /** ComboBox para filtrar por tipo de registro en la tabla */
+    @FXML private ComboBox<String> cbxTipoRegistroFiltro;
+
     // ==================== BOTONES DE ACCIÓN ====================
     /** Botón para guardar o actualizar registros */
     @FXML private Button btnGuardar;
@@ -85,6 +108,9 @@ public class AsistenciaController extends BaseController {
     /** Botón para cancelar operaciones */
     @FXML private Button btnCancelar;
 
+    /** Botón para registrar la asistencia de toda la sección */
+    @FXML private Button btnMarcarSeccion;
+
     /** Botón para generar códigos QR */
     @FXML private Button btnGenerarQR;
 
@@ -104,6 +130,15 @@ public class AsistenciaController extends BaseController {
     /** Botón para escanear QR */
     @FXML private Button btnEscanearQR;
 
+    /** Botón para iniciar/detener el escaneo continuo */
+    @FXML private Button btnEscaneoContinuo;
+
+    /** Botón para importar una carpeta de capturas QR por lotes */
+    @FXML private Button btnImportarLote;
+
+    /** Estado del escaneo continuo (último código procesado) */
+    @FXML private Label lblEstadoEscaneo;
+
     /** ImageView para mostrar el código QR generado */
     @FXML private ImageView imgQRAsistencia;
 
@@ -136,6 +171,12 @@ public class AsistenciaController extends BaseController {
     /** DAO para operaciones de eventos */
     private EventoDAO eventoDAO;
 
+    /** DAO para el registro de asistencia a eventos */
+    private AsistenciaEventoDAO asistenciaEventoDAO;
+
+    /** Validación de QR de evento compartida por el escaneo manual, el continuo y la importación */
+    private ValidadorEntradaEvento validadorEntrada;
+
     // ==================== VARIABLES DE CONTROL DE ESTADO ====================
     /** Usuario actualmente logueado en el sistema */
     private Usuario usuarioLogueado;
@@ -143,6 +184,30 @@ public class AsistenciaController extends BaseController {
     /** Asistencia actualmente seleccionada en la tabla */
     private Asistencia asistenciaSeleccionada;
 
+    /** Escáner continuo activo (null si está detenido) */
+    private EscanerQRContinuo escanerContinuo;
+
+    /** Ventana en la que se ignoran lecturas repetidas del mismo QR */
+    private static final long REBOTE_ESCANEO_MS = 5_000;
+
+    /** Filas por página de la tabla de asistencias */
+    private static final int FILAS_POR_PAGINA = 200;
+
+    /** Páginas que se mantienen cargadas a la vez en la tabla */
+    private static final int PAGINAS_EN_MEMORIA = 5;
+
+    /** Filas por consulta al exportar el historial completo */
+    private static final int FILAS_POR_PAGINA_EXPORTACION = 1000;
+
+    /** Carga la tabla por páginas a medida que se desplaza */
+    private PaginadorTabla<Asistencia> paginador;
+
+    /** Criterios aplicados a la tabla (null = sin filtros) */
+    private FiltroAsistencia filtroActual;
+
+    /** Opción de los ComboBox de filtro que no filtra */
+    private static final String OPCION_TODOS = "TODOS";
+
     // ==================== MÉTODOS DE LA INTERFAZ BaseController ====================
 
     /**
@@ -174,6 +239,8 @@ public class AsistenciaController extends BaseController {
         asignaturaDAO = new AsignaturaDAO();
         docenteDAO = new DocenteDAO();
         eventoDAO = new EventoDAO(); // ✅ AGREGADO: Inicializar EventoDAO
+        asistenciaEventoDAO = new AsistenciaEventoDAO();
+        validadorEntrada = new ValidadorEntradaEvento(estudianteDAO, eventoDAO);
 
         // ==================== INICIALIZACIÓN DE LISTAS OBSERVABLES ====================
         asistenciasList = FXCollections.observableArrayList();
@@ -191,6 +258,9 @@ public class AsistenciaController extends BaseController {
 
         // Vincular la lista observable con la tabla
         tableView.setItems(asistenciasList);
+        mostrarProgresoEn(tableView);
+        paginador = new PaginadorTabla<>(this, tableView, asistenciasList, "asistencias",
+                FILAS_POR_PAGINA, PAGINAS_EN_MEMORIA);
         log.info("✅ AsistenciaController inicializado correctamente");
     }
 
@@ -275,6 +345,14 @@ public class AsistenciaController extends BaseController {
         // Tipos de registro predefinidos
         cbxTipoRegistro.getItems().addAll("MANUAL", "QR", "BIOMETRICO");
 
+        // Las mismas opciones sirven para filtrar la tabla
+        cbxEstadoFiltro.getItems().add(OPCION_TODOS);
+        cbxEstadoFiltro.getItems().addAll(cbxEstado.getItems());
+        cbxEstadoFiltro.setValue(OPCION_TODOS);
+        cbxTipoRegistroFiltro.getItems().add(OPCION_TODOS);
+        cbxTipoRegistroFiltro.getItems().addAll(cbxTipoRegistro.getItems());
+        cbxTipoRegistroFiltro.setValue(OPCION_TODOS);
+
         // ==================== CONFIGURACIÓN DE COMBOBOX DE FILTRO ====================
         // Vincular lista de asignaturas al ComboBox de filtro
         cbxAsignaturaFiltro.setItems(asignaturasList);
@@ -289,8 +367,8 @@ public class AsistenciaController extends BaseController {
         });
 
         // ==================== CARGA Y CONFIGURACIÓN DE ESTUDIANTES ====================
-        // Cargar estudiantes desde la base de datos
-        estudiantesList.setAll(estudianteDAO.obtenerTodos());
+        // Cargar estudiantes desde la base de datos (en segundo plano)
+        cargarEnSegundoPlano("estudiantes", estudianteDAO::obtenerTodos, estudiantesList::setAll);
 
         // Vincular lista al ComboBox
         cbxEstudiante.setItems(estudiantesList);
@@ -305,8 +383,8 @@ public class AsistenciaController extends BaseController {
         });
 
         // ==================== CARGA Y CONFIGURACIÓN DE ASIGNATURAS ====================
-        // Cargar asignaturas desde la base de datos
-        asignaturasList.setAll(asignaturaDAO.obtenerTodos());
+        // Cargar asignaturas desde la base de datos (en segundo plano)
+        cargarEnSegundoPlano("asignaturas", asignaturaDAO::obtenerTodos, asignaturasList::setAll);
 
         // Vincular lista al ComboBox
         cbxAsignatura.setItems(asignaturasList);
@@ -321,8 +399,8 @@ public class AsistenciaController extends BaseController {
         });
 
         // ==================== CARGA Y CONFIGURACIÓN DE DOCENTES ====================
-        // Cargar docentes desde la base de datos
-        docentesList.setAll(docenteDAO.obtenerTodos());
+        // Cargar docentes desde la base de datos (en segundo plano)
+        cargarEnSegundoPlano("docentes", docenteDAO::obtenerTodos, docentesList::setAll);
 
         // Vincular lista al ComboBox
         cbxDocente.setItems(docentesList);
@@ -369,19 +447,22 @@ public class AsistenciaController extends BaseController {
 
 
     private void cargarDatos() {
-        try {
-            log.info("📥 Cargando asistencias desde BD...");
+        log.info("📥 Cargando asistencias desde BD...");
 
-            // Obtener todas las asistencias desde la base de datos
-            asistenciasList.setAll(asistenciaDAO.obtenerTodas());
-
-            log.info("✅ " + asistenciasList.size() + " asistencias cargadas correctamente");
-        } catch (Exception e) {
-            log.severe("❌ Error al cargar asistencias: " + e.getMessage());
+        // Solo se trae la primera página; el resto se pide al desplazarse por la tabla.
+        // El filtro se fija aquí para que todas las páginas usen los mismos criterios.
+        FiltroAsistencia filtro = filtroActual;
+        paginador.reiniciar(new PaginadorTabla.FuentePaginas<>() {
+            @Override
+            public List<Asistencia> siguientes(Asistencia ultima, int limite) {
+                return asistenciaDAO.obtenerPaginaSiguiente(filtro, ultima, limite);
+            }
 
-            // Mostrar alerta al usuario en caso de error
-            mostrarAlerta("Error", "No se pudieron cargar las asistencias: " + e.getMessage(), Alert.AlertType.ERROR);
-        }
+            @Override
+            public List<Asistencia> anteriores(Asistencia primera, int limite) {
+                return asistenciaDAO.obtenerPaginaAnterior(filtro, primera, limite);
+            }
+        });
     }
 
     private void cargarDatosFormulario(Asistencia asistencia) {
@@ -479,6 +560,70 @@ public class AsistenciaController extends BaseController {
         }
     }
 
+    /**
+     * Registra en un solo lote la asistencia de toda la sección (misma carrera,
+     * semestre y grupo) del estudiante seleccionado, con el estado elegido.
+     * Luego se pueden corregir individualmente los que falten.
+     */
+    @FXML
+    private void marcarSeccion() {
+        log.info("👥 Intentando marcar sección completa...");
+
+        if (!validarFormulario()) {
+            log.warning("⚠️ Validación de formulario fallida");
+            return;
+        }
+
+        // ==================== DETERMINAR LOS ESTUDIANTES DE LA SECCIÓN ====================
+        Estudiante referencia = cbxEstudiante.getValue();
+        List<Estudiante> seccion = estudiantesList.stream()
+                .filter(Estudiante::isActivo)
+                .filter(e -> Objects.equals(e.getCarrera(), referencia.getCarrera())
+                        && Objects.equals(e.getSemestre(), referencia.getSemestre())
+                        && Objects.equals(e.getGrupo(), referencia.getGrupo()))
+                .collect(Collectors.toList());
+
+        Alert confirmacion = new Alert(Alert.AlertType.CONFIRMATION);
+        confirmacion.setTitle("Marcar Sección");
+        confirmacion.setHeaderText("¿Registrar " + cbxEstado.getValue() + " para " + seccion.size() + " estudiantes?");
+        confirmacion.setContentText("Sección: " + referencia.getCarrera() + " - Semestre " + referencia.getSemestre() +
+                " - Grupo " + (referencia.getGrupo() != null ? referencia.getGrupo() : "(sin grupo)"));
+
+        Optional<ButtonType> result = confirmacion.showAndWait();
+        if (result.isEmpty() || result.get() != ButtonType.OK) {
+            log.info("❌ Marcado de sección cancelado por el usuario");
+            return;
+        }
+
+        // ==================== CONSTRUIR Y GUARDAR EL LOTE ====================
+        LocalDateTime ahora = LocalDateTime.now();
+        String observaciones = txtObservaciones.getText().trim();
+        List<Asistencia> lote = new ArrayList<>(seccion.size());
+        for (Estudiante estudiante : seccion) {
+            lote.add(Asistencia.builder()
+                    .fechaHora(ahora)
+                    .estado(cbxEstado.getValue())
+                    .observaciones(observaciones)
+                    .tipoRegistro(cbxTipoRegistro.getValue())
+                    .estudianteId(estudiante.getId())
+                    .asignaturaId(cbxAsignatura.getValue().getId())
+                    .docenteId(cbxDocente.getValue().getId())
+                    .build());
+        }
+
+        List<Integer> ids = asistenciaDAO.guardarLote(lote);
+        if (ids.size() == lote.size()) {
+            mostrarAlerta("Éxito", ids.size() + " asistencias registradas para la sección", Alert.AlertType.INFORMATION);
+            log.info("✅ Sección marcada: " + ids.size() + " asistencias");
+
+            limpiarFormulario();
+            cargarDatos();
+        } else {
+            mostrarAlerta("Error", "No se pudo registrar la asistencia de la sección", Alert.AlertType.ERROR);
+            log.severe("❌ Error al marcar sección completa");
+        }
+    }
+
     @FXML
     private void eliminarAsistencia() {
         // Verificar que hay una asistencia seleccionada
@@ -519,51 +664,105 @@ public class AsistenciaController extends BaseController {
     private void filtrarAsistencias() {
         log.info("🔍 Aplicando filtros...");
 
-        // Obtener valores actuales de los filtros
-        LocalDate fecha = dpFecha.getValue();
-        Asignatura asignatura = cbxAsignaturaFiltro.getValue();
+        // El filtrado lo resuelve la base de datos; la tabla se recarga por páginas
+        LocalDate desde = dpFecha.getValue();
+        LocalDate hasta = dpFechaHasta.getValue() != null ? dpFechaHasta.getValue() : desde;
+        if (desde != null && hasta != null && hasta.isBefore(desde)) {
+            mostrarAlerta("Advertencia", "La fecha final no puede ser anterior a la inicial", Alert.AlertType.WARNING);
+            return;
+        }
 
-        // ==================== APLICAR FILTROS SI HAY VALORES SELECCIONADOS ====================
-        if (fecha != null || asignatura != null) {
-            // Crear una nueva lista filtrada de manera segura
-            ObservableList<Asistencia> listaFiltrada = FXCollections.observableArrayList();
+        Asignatura asignatura = cbxAsignaturaFiltro.getValue();
+        FiltroAsistencia filtro = FiltroAsistencia.builder()
+                .desde(desde)
+                .hasta(hasta)
+                .asignaturaId(asignatura != null ? asignatura.getId() : null)
+                .estado(valorFiltro(cbxEstadoFiltro))
+                .tipoRegistro(valorFiltro(cbxTipoRegistroFiltro))
+                .build();
+
+        filtroActual = filtro.estaVacio() ? null : filtro;
+        log.info(filtroActual != null ? "✅ Filtros aplicados: " + filtroActual : "🔄 Sin filtros - Recargando todos los datos");
+        cargarDatos();
+    }
 
-            // Filtrar la lista original basándose en los criterios seleccionados
-            for (Asistencia a : asistenciasList) {
-                boolean coincideFecha = fecha == null ||
-                        (a.getFechaHora() != null && a.getFechaHora().toLocalDate().equals(fecha));
-                boolean coincideAsignatura = asignatura == null ||
-                        (a.getAsignaturaId() != null && a.getAsignaturaId().equals(asignatura.getId()));
+    /**
+     * Quita todos los filtros y vuelve a cargar la tabla completa.
+     */
+    @FXML
+    private void limpiarFiltros() {
+        limpiarControlesFiltro();
+        cargarDatos();
+    }
 
-                if (coincideFecha && coincideAsignatura) {
-                    listaFiltrada.add(a);
-                }
-            }
+    /**
+     * Deja la barra de filtros vacía y sin criterios aplicados, para que lo que se ve
+     * en la barra coincida con lo que carga la tabla.
+     */
+    private void limpiarControlesFiltro() {
+        dpFecha.setValue(null);
+        dpFechaHasta.setValue(null);
+        cbxAsignaturaFiltro.setValue(null);
+        cbxEstadoFiltro.setValue(OPCION_TODOS);
+        cbxTipoRegistroFiltro.setValue(OPCION_TODOS);
+        filtroActual = null;
+    }
 
-            // Actualizar la tabla con la lista filtrada de manera segura
-            tableView.getItems().setAll(listaFiltrada);
-            log.info("✅ Filtros aplicados - " + listaFiltrada.size() + " registros encontrados");
-        } else {
-            // Si no hay filtros, recargar todos los datos
-            cargarDatos();
-            log.info("🔄 Sin filtros - Recargando todos los datos");
-        }
+    private static String valorFiltro(ComboBox<String> combo) {
+        String valor = combo.getValue();
+        return valor == null || OPCION_TODOS.equals(valor) ? null : valor;
     }
 
+    /**
+     * Exporta a CSV todas las asistencias que cumplen el filtro aplicado, no solo la
+     * ventana cargada en la tabla: se recorren página por página en segundo plano y se
+     * escriben a medida que llegan.
+     */
     @FXML
     private void exportarDatos() {
-        // Verificar que hay datos para exportar
-        if (asistenciasList.isEmpty()) {
-            mostrarAlerta("Advertencia", "No hay datos para exportar", Alert.AlertType.WARNING);
-            log.warning("⚠️ Intento de exportar sin datos");
+        File archivo = ExportUtils.elegirArchivoCSV("Reporte_Asistencias_UPeU");
+        if (archivo == null) {
             return;
         }
 
-        log.info("📊 Exportando datos a CSV...");
+        log.info("📊 Exportando asistencias a CSV...");
+        FiltroAsistencia filtro = filtroActual;
+        List<TableColumn<Asistencia, ?>> columnas = List.copyOf(tableView.getColumns());
+
+        Task<Long> tarea = new Task<>() {
+            @Override
+            protected Long call() throws Exception {
+                return ExportUtils.exportarPaginasACSV(columnas, archivo,
+                        (ultima, limite) -> asistenciaDAO.obtenerPaginaSiguiente(filtro, ultima, limite),
+                        FILAS_POR_PAGINA_EXPORTACION);
+            }
+        };
+
+        tarea.setOnSucceeded(e -> {
+            btnExportar.setDisable(false);
+            long filas = tarea.getValue();
+            if (filas == 0) {
+                archivo.delete();
+                log.warning("⚠️ Intento de exportar sin datos");
+                mostrarAlerta("Advertencia", "No hay datos para exportar", Alert.AlertType.WARNING);
+                return;
+            }
+            log.info("✅ Datos exportados correctamente: " + filas + " registros");
+            mostrarAlerta("Exportación completada",
+                    "Se exportaron " + filas + " registros a:\n" + archivo.getAbsolutePath(),
+                    Alert.AlertType.INFORMATION);
+        });
+        tarea.setOnFailed(e -> {
+            btnExportar.setDisable(false);
+            log.severe("❌ Error al exportar asistencias: " + tarea.getException().getMessage());
+            mostrarAlerta("Error de exportación",
+                    "No se pudo exportar: " + tarea.getException().getMessage(), Alert.AlertType.ERROR);
+        });
 
-        // Utilizar utilidad de exportación para generar archivo CSV
-        ExportUtils.exportarTablaACSV(tableView, "Reporte_Asistencias_UPeU");
-        log.info("✅ Datos exportados correctamente");
+        btnExportar.setDisable(true);
+        Thread hilo = new Thread(tarea, "exportacion-asistencias");
+        hilo.setDaemon(true);
+        hilo.start();
     }
 
 
@@ -759,6 +958,10 @@ public class AsistenciaController extends BaseController {
                         } else if (datosQR.esDocente()) {
                             procesarQRDocente(datosQR);
                         }
+                    } else {
+                        // Formato desconocido o firma que no corresponde a la del sistema
+                        mostrarAlerta("QR Inválido", "El código QR no es válido o no fue emitido por el sistema",
+                                Alert.AlertType.ERROR);
                     }
                 }
             } else {
@@ -771,6 +974,165 @@ public class AsistenciaController extends BaseController {
         }
     }
 
+    /**
+     * Inicia o detiene el escaneo continuo. Los fotogramas se toman de una carpeta
+     * vigilada (donde la cámara o el programa de captura guarda las imágenes) y se
+     * decodifican en segundo plano sin bloquear la interfaz.
+     */
+    @FXML
+    private void alternarEscaneoContinuo() {
+        if (escanerContinuo != null && escanerContinuo.isActivo()) {
+            detenerEscaneoContinuo();
+            log.info("🛑 Escaneo continuo detenido por el usuario");
+            return;
+        }
+
+        DirectoryChooser chooser = new DirectoryChooser();
+        chooser.setTitle("Seleccionar carpeta de capturas de la cámara");
+        File carpeta = chooser.showDialog(tableView.getScene().getWindow());
+        if (carpeta == null) {
+            return;
+        }
+
+        try {
+            FrameSource fuente = new DirectorioFrameSource(carpeta.toPath());
+            escanerContinuo = new EscanerQRContinuo(fuente, this::registrarEntradaContinua, REBOTE_ESCANEO_MS);
+            escanerContinuo.iniciar();
+            btnEscaneoContinuo.setText("⏹ Detener Escaneo");
+            lblEstadoEscaneo.setText("🎥 Escaneando: " + fuente.getDescripcion());
+        } catch (IOException e) {
+            log.severe("❌ No se pudo iniciar el escaneo continuo: " + e.getMessage());
+            mostrarAlerta("Error", "No se pudo vigilar la carpeta: " + e.getMessage(), Alert.AlertType.ERROR);
+        }
+    }
+
+    /**
+     * Registra la entrada a evento de un QR leído por el escáner continuo.
+     * Se ejecuta en el hilo del escáner: no muestra diálogos, solo actualiza el estado.
+     */
+    private void registrarEntradaContinua(String qrData) {
+        ValidadorEntradaEvento.Validacion validacion =
+                validadorEntrada.validar(qrData, System.currentTimeMillis());
+
+        switch (validacion.getEstado()) {
+            case NO_ES_EVENTO:
+                actualizarEstadoEscaneo("⚠️ QR ignorado: no es un QR de asistencia a evento");
+                return;
+            case FORMATO_INVALIDO:
+                actualizarEstadoEscaneo("❌ QR de evento con formato incorrecto");
+                return;
+            case FIRMA_INVALIDA:
+                actualizarEstadoEscaneo("❌ QR con firma inválida: " + validacion.getCodigoEstudiante());
+                return;
+            case EXPIRADO:
+                actualizarEstadoEscaneo("❌ QR expirado: " + validacion.getCodigoEstudiante());
+                return;
+            case REUTILIZADO:
+                actualizarEstadoEscaneo("⚠️ QR ya utilizado: " + validacion.getCodigoEstudiante());
+                return;
+            case ESTUDIANTE_DESCONOCIDO:
+            case EVENTO_NO_VALIDO:
+                actualizarEstadoEscaneo("❌ Estudiante o evento no válido: " +
+                        validacion.getCodigoEstudiante() + " / " + validacion.getCodigoEvento());
+                return;
+            default:
+                break;
+        }
+
+        Estudiante estudiante = validacion.getEstudiante();
+        Evento evento = validacion.getEvento();
+        asistenciaEventoDAO.registrarEntradaEventoAsync(estudiante.getId(), evento.getId(), "QR")
+                .thenAccept(resultado -> actualizarEstadoEscaneo(
+                        (resultado == ResultadoRegistro.REGISTRADO ? "✅ Registrado: " : "ℹ️ Ya registrado: ") +
+                                estudiante.getNombreCompleto() + " - " + evento.getNombre()))
+                .exceptionally(e -> {
+                    // El QR no quedó registrado: puede volver a leerse dentro de su vigencia
+                    validadorEntrada.liberar(validacion);
+                    log.severe("❌ Error en registro continuo: " + e.getMessage());
+                    actualizarEstadoEscaneo("❌ Error registrando a " + estudiante.getNombreCompleto());
+                    return null;
+                });
+    }
+
+    /**
+     * Importa por lotes una carpeta de capturas QR de entrada a evento.
+     * La decodificación y el registro corren en segundo plano; al terminar se muestra
+     * el resumen y se guarda el detalle por archivo en un CSV dentro de la carpeta.
+     */
+    @FXML
+    private void importarCarpetaQR() {
+        DirectoryChooser chooser = new DirectoryChooser();
+        chooser.setTitle("Seleccionar carpeta con capturas QR a importar");
+        File carpeta = chooser.showDialog(tableView.getScene().getWindow());
+        if (carpeta == null) {
+            return;
+        }
+
+        ImportadorQRLote importador = new ImportadorQRLote(validadorEntrada, asistenciaEventoDAO,
+                Runtime.getRuntime().availableProcessors());
+
+        Task<ImportadorQRLote.Reporte> tarea = new Task<>() {
+            @Override
+            protected ImportadorQRLote.Reporte call() throws Exception {
+                ImportadorQRLote.Reporte reporte = importador.importar(carpeta.toPath());
+                reporte.escribirCSV(carpeta.toPath().resolve(
+                        "reporte_importacion_" + System.currentTimeMillis() + ".csv"));
+                return reporte;
+            }
+        };
+
+        tarea.setOnSucceeded(e -> {
+            btnImportarLote.setDisable(false);
+            ImportadorQRLote.Reporte reporte = tarea.getValue();
+            lblEstadoEscaneo.setText(String.format("📥 Importadas %d imágenes (%.1f/s)",
+                    reporte.getTotal(), reporte.getArchivosPorSegundo()));
+            mostrarAlerta("Importación Finalizada",
+                    reporte.getResumen() + "\n\n📄 Detalle guardado en la carpeta importada",
+                    Alert.AlertType.INFORMATION);
+        });
+        tarea.setOnFailed(e -> {
+            btnImportarLote.setDisable(false);
+            lblEstadoEscaneo.setText("❌ Importación fallida");
+            log.severe("❌ Error en importación por lotes: " + tarea.getException().getMessage());
+            mostrarAlerta("Error", "No se pudo importar la carpeta: " + tarea.getException().getMessage(),
+                    Alert.AlertType.ERROR);
+        });
+
+        btnImportarLote.setDisable(true);
+        lblEstadoEscaneo.setText("📥 Importando " + carpeta.getName() + "...");
+        Thread hilo = new Thread(tarea, "qr-importacion-lote");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    private void detenerEscaneoContinuo() {
+        if (escanerContinuo != null) {
+            escanerContinuo.detener();
+            escanerContinuo = null;
+        }
+        btnEscaneoContinuo.setText("🎥 Escaneo Continuo");
+        lblEstadoEscaneo.setText("Escaneo continuo detenido");
+    }
+
+    /**
+     * Al salir de la vista también se detiene el escaneo continuo: si no, su hilo y la
+     * vigilancia de la carpeta seguirían registrando entradas para una vista ya cerrada,
+     * y al volver a la pantalla se podría iniciar otro escáner sobre la misma carpeta.
+     */
+    @Override
+    public void cancelarCargas() {
+        super.cancelarCargas();
+        if (escanerContinuo != null) {
+            detenerEscaneoContinuo();
+            log.info("🛑 Escaneo continuo detenido al salir de la vista");
+        }
+    }
+
+    private void actualizarEstadoEscaneo(String mensaje) {
+        log.info("🎥 " + mensaje);
+        Platform.runLater(() -> lblEstadoEscaneo.setText(mensaje));
+    }
+
     /**
      * Procesa QR de estudiante y registra asistencia
      */
@@ -778,11 +1140,8 @@ public class AsistenciaController extends BaseController {
         log.info("🎓 Procesando QR de estudiante: " + datosQR.getNombre());
 
         try {
-            // Buscar estudiante en la lista
-            Estudiante estudiante = estudiantesList.stream()
-                    .filter(e -> e.getId().equals(datosQR.getId()))
-                    .findFirst()
-                    .orElse(null);
+            // Buscar estudiante en el índice en memoria (el ID viaja como texto en el QR)
+            Estudiante estudiante = estudianteDAO.obtenerPorId(Integer.valueOf(datosQR.getId().trim())).orElse(null);
 
             if (estudiante != null) {
                 // Auto-completar formulario
@@ -863,93 +1222,79 @@ public class AsistenciaController extends BaseController {
 
     /**
      * Procesa QR de evento y registra asistencia automáticamente
-     * Formato: UPeU-ASIST-{CODIGO_ESTUDIANTE}-{CODIGO_EVENTO}-{TIMESTAMP}
+     * Formato: UPeU-ASIST-{CODIGO_ESTUDIANTE}-{CODIGO_EVENTO}-{TIMESTAMP}-{FIRMA}
+     * La validación es la misma del escaneo continuo y la importación por lotes.
      */
     private void procesarQREvento(String qrData) {
         try {
             log.info("🎯 Procesando QR de evento: " + qrData);
 
-            // Parsear datos del QR (formato: UPeU-ASIST-202434565-IG234-1763933574081)
-            String[] partes = qrData.split("-");
-            if (partes.length < 5) {
-                mostrarAlerta("QR Inválido", "Formato de QR de evento incorrecto", Alert.AlertType.ERROR);
-                return;
-            }
+            ValidadorEntradaEvento.Validacion validacion =
+                    validadorEntrada.validar(qrData, System.currentTimeMillis());
+            String codigoEstudiante = validacion.getCodigoEstudiante();
+            String codigoEvento = validacion.getCodigoEvento();
 
-            String codigoEstudiante = partes[2]; // Ej: 202434565
-            String codigoEvento = partes[3];     // Ej: IG234
-            String timestampStr = partes[4];     // Ej: 1763933574081
-
-            // Validar timestamp (QR válido por 10 minutos)
-            long timestampQR = Long.parseLong(timestampStr);
-            long tiempoActual = System.currentTimeMillis();
-            long diferencia = tiempoActual - timestampQR;
-
-            if (diferencia > 10 * 60 * 1000) { // 10 minutos
-                mostrarAlerta("QR Expirado",
-                        "❌ El código QR ha expirado\n\n" +
-                                "⏰ Generado hace: " + (diferencia/1000/60) + " minutos\n" +
-                                "📱 Genere un nuevo código QR",
-                        Alert.AlertType.WARNING);
-                return;
-            }
-
-            // Obtener ID del estudiante
-            Integer estudianteId = asistenciaDAO.obtenerEstudianteIdPorCodigo(codigoEstudiante);
-            if (estudianteId == null) {
-                mostrarAlerta("Estudiante No Encontrado",
-                        "❌ No se encontró al estudiante con código: " + codigoEstudiante,
-                        Alert.AlertType.WARNING);
-                return;
+            switch (validacion.getEstado()) {
+                case NO_ES_EVENTO:
+                case FORMATO_INVALIDO:
+                    log.warning("⚠️ QR de evento inválido: " + qrData);
+                    mostrarAlerta("QR Inválido", "Formato de QR de evento incorrecto", Alert.AlertType.ERROR);
+                    return;
+                case FIRMA_INVALIDA:
+                    log.warning("⚠️ QR de evento con firma inválida: " + codigoEstudiante);
+                    mostrarAlerta("QR No Válido",
+                            "❌ El código QR no fue emitido por el sistema\n\n" +
+                                    "📱 Genere un nuevo código QR",
+                            Alert.AlertType.ERROR);
+                    return;
+                case EXPIRADO:
+                    mostrarAlerta("QR Expirado",
+                            "❌ El código QR ha expirado\n\n" +
+                                    "⏰ Vigencia: " + (ValidadorEntradaEvento.VIGENCIA_MS / 60_000) + " minutos\n" +
+                                    "📱 Genere un nuevo código QR",
+                            Alert.AlertType.WARNING);
+                    return;
+                case REUTILIZADO:
+                    mostrarAlerta("QR Ya Utilizado",
+                            "⚠️ Este código QR ya fue utilizado\n\n" +
+                                    "📱 Genere un nuevo código QR",
+                            Alert.AlertType.WARNING);
+                    return;
+                case ESTUDIANTE_DESCONOCIDO:
+                    mostrarAlerta("Estudiante No Encontrado",
+                            "❌ No se encontró al estudiante con código: " + codigoEstudiante,
+                            Alert.AlertType.WARNING);
+                    return;
+                case EVENTO_NO_VALIDO:
+                    mostrarAlerta("Evento No Válido",
+                            "❌ El evento " + codigoEvento + " no existe o no está activo",
+                            Alert.AlertType.WARNING);
+                    return;
+                default:
+                    break;
             }
 
-            // Obtener estudiante para mostrar info
-            Estudiante estudiante = estudiantesList.stream()
-                    .filter(e -> e.getCodigoEstudiante().equals(codigoEstudiante))
-                    .findFirst()
-                    .orElse(null);
-
-            // Buscar evento por código (asumiendo que el código del evento está en la tabla eventos)
-            // Si no tienes campo código_evento, necesitaríamos mapear codigoEvento a eventoId
-            // Por ahora, usar un mapeo temporal
-            Integer eventoId = mapearCodigoEventoAId(codigoEvento);
-
-            if (eventoId == null) {
-                mostrarAlerta("Evento No Encontrado",
-                        "❌ No se encontró el evento con código: " + codigoEvento,
-                        Alert.AlertType.WARNING);
-                return;
-            }
+            Estudiante estudiante = validacion.getEstudiante();
+            Evento evento = validacion.getEvento();
 
-            // Verificar si el evento existe
-            if (!eventoDAO.eventoExiste(eventoId)) {
-                mostrarAlerta("Evento No Válido",
-                        "❌ El evento no existe o no está activo",
-                        Alert.AlertType.WARNING);
-                return;
-            }
+            // Registro atómico: la restricción única decide si es nuevo o ya existía
+            ResultadoRegistro resultado = asistenciaEventoDAO.registrarEntradaEvento(estudiante.getId(), evento.getId(), "QR");
 
-            // Verificar si ya tiene asistencia registrada
-            if (asistenciaDAO.existeAsistenciaEvento(estudianteId, eventoId)) {
+            if (resultado == ResultadoRegistro.YA_REGISTRADO) {
                 mostrarAlerta("Asistencia Ya Registrada",
                         "✅ Ya tienes asistencia registrada para este evento\n\n" +
-                                "👤 Estudiante: " + (estudiante != null ? estudiante.getNombreCompleto() : codigoEstudiante) +
+                                "👤 Estudiante: " + estudiante.getNombreCompleto() +
                                 "\n📅 Código Evento: " + codigoEvento,
                         Alert.AlertType.INFORMATION);
                 return;
             }
 
-            // Registrar asistencia automáticamente
-            boolean exito = asistenciaDAO.registrarAsistenciaDesdeQR(estudianteId, eventoId, "QR");
-
-            if (exito) {
-                // Obtener info del evento para mostrar
-                Optional<Evento> eventoOpt = eventoDAO.obtenerEventoPorId(eventoId);
-                String nombreEvento = eventoOpt.map(Evento::getNombre).orElse("Evento " + codigoEvento);
+            if (resultado == ResultadoRegistro.REGISTRADO) {
+                String nombreEvento = evento.getNombre() != null ? evento.getNombre() : "Evento " + codigoEvento;
 
                 mostrarAlerta("Asistencia Registrada",
                         "✅ Asistencia registrada automáticamente\n\n" +
-                                "👤 Estudiante: " + (estudiante != null ? estudiante.getNombreCompleto() : codigoEstudiante) +
+                                "👤 Estudiante: " + estudiante.getNombreCompleto() +
                                 "\n🎯 Evento: " + nombreEvento +
                                 "\n📅 Código: " + codigoEvento +
                                 "\n⏰ Hora: " + java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("HH:mm:ss")) +
@@ -958,39 +1303,20 @@ public class AsistenciaController extends BaseController {
 
                 log.info("✅ Asistencia automática registrada - Estudiante: " + codigoEstudiante + ", Evento: " + codigoEvento);
 
-                // Recargar datos para mostrar en tabla
-                cargarDatos();
-
             } else {
+                // No se guardó: el QR debe poder reintentarse
+                validadorEntrada.liberar(validacion);
                 mostrarAlerta("Error",
                         "❌ No se pudo registrar la asistencia automáticamente",
                         Alert.AlertType.ERROR);
             }
 
-        } catch (NumberFormatException e) {
-            log.severe("❌ Error parseando QR de evento: " + e.getMessage());
-            mostrarAlerta("QR Inválido", "El código QR tiene formato incorrecto", Alert.AlertType.ERROR);
         } catch (Exception e) {
             log.severe("❌ Error procesando QR de evento: " + e.getMessage());
             mostrarAlerta("Error", "Error al procesar el código QR de evento", Alert.AlertType.ERROR);
         }
     }
 
-    /**
-     * Mapea código de evento a ID de evento (necesitas implementar según tu estructura)
-     * Por ahora es un mapeo temporal - debes adaptarlo a tu base de datos
-     */
-    private Integer mapearCodigoEventoAId(String codigoEvento) {
-        // EJEMPLO: Mapeo temporal - DEBES ADAPTAR ESTO A TU BD
-        Map<String, Integer> mapeoEventos = new HashMap<>();
-        mapeoEventos.put("IG234", 1);
-        mapeoEventos.put("MAT101", 2);
-        mapeoEventos.put("EVT001", 3);
-        // Agrega más mapeos según tus eventos...
-
-        return mapeoEventos.get(codigoEvento);
-    }
-
     // ==================== MÉTODOS AUXILIARES ====================
 
     private boolean validarFormulario() {
@@ -1044,10 +1370,9 @@ public class AsistenciaController extends BaseController {
         txtObservaciones.clear();
         imgQRAsistencia.setImage(null);
 
-        // ==================== LIMPIAR FILTROS SI EXISTEN ====================
-        if (dpFecha != null) {
-            dpFecha.setValue(null);
-        }
+        // ==================== LIMPIAR FILTROS ====================
+        // La recarga posterior (guardar, actualizar, eliminar) trae todas las filas
+        limpiarControlesFiltro();
 
         // ==================== LIMPIAR SELECCIÓN Y RESTAURAR BOTÓN ====================
         limpiarSeleccion();
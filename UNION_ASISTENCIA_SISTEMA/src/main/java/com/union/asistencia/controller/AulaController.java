@@ -4,6 +4,7 @@ import com.union.asistencia.dao.AulaDAO;
 import com.union.asistencia.model.Aula;
 import com.union.asistencia.model.Usuario;
 import com.union.asistencia.util.ExportUtils;
+import com.union.asistencia.util.TextoBusqueda;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -46,6 +47,9 @@ public class AulaController extends BaseController {
     private Usuario usuarioLogueado;
     private Aula aulaSeleccionada;
 
+    /** Filtra la tabla de aulas mientras se escribe en txtBuscar */
+    private BusquedaIncremental<Aula> busqueda;
+
     @Override
     public void setUsuarioLogueado(Usuario usuario) {
         this.usuarioLogueado = usuario;
@@ -64,7 +68,10 @@ public class AulaController extends BaseController {
         configurarEventos();
         configurarFiltros();
 
-        tableView.setItems(aulasList);
+        busqueda = new BusquedaIncremental<>(this, tableView, aulasList, txtBuscar, "busqueda-aulas",
+                a -> TextoBusqueda.clave(a.getCodigoAula(), a.getNombre(), a.getEdificio(), a.getTipo(),
+                        a.getEquipamiento()));
+        mostrarProgresoEn(tableView);
     }
 
     @FXML
@@ -142,7 +149,7 @@ public class AulaController extends BaseController {
     }
 
     private void cargarDatos() {
-        aulasList.setAll(aulaDAO.obtenerTodas());
+        cargarEnSegundoPlano("aulas", aulaDAO::obtenerTodas, aulasList::setAll);
     }
 
     @FXML
@@ -218,23 +225,9 @@ public class AulaController extends BaseController {
 
     @FXML
     private void buscarAulas() {
-        String criterio = txtBuscar.getText().trim();
-        if (criterio.isEmpty()) {
-            cargarDatos();
-        } else {
-            // ✅ CORRECCIÓN: Buscar en la base de datos en lugar de filtrar la lista actual
-            aulasList.setAll(aulaDAO.buscarPorEdificio(criterio));
-
-            // Si no se encontraron resultados por edificio, buscar por nombre o código
-            if (aulasList.isEmpty()) {
-                // Buscar en todas las aulas por nombre o código
-                ObservableList<Aula> todasLasAulas = FXCollections.observableArrayList(aulaDAO.obtenerTodas());
-                aulasList.setAll(todasLasAulas.filtered(a ->
-                        a.getNombre().toLowerCase().contains(criterio.toLowerCase()) ||
-                                a.getCodigoAula().toLowerCase().contains(criterio.toLowerCase())
-                ));
-            }
-        }
+        // Busca por código, nombre, edificio, tipo y equipamiento sobre las aulas ya
+        // cargadas (respeta el filtro por tipo); la tabla se filtra mientras se escribe
+        busqueda.buscarAhora();
     }
 
     // ✅ MÉTODO FALTANTE AGREGADO
@@ -244,7 +237,7 @@ public class AulaController extends BaseController {
         if (tipoSeleccionado == null || "TODOS".equals(tipoSeleccionado)) {
             cargarDatos();
         } else {
-            aulasList.setAll(aulaDAO.buscarPorTipo(tipoSeleccionado));
+            cargarEnSegundoPlano("aulas", () -> aulaDAO.buscarPorTipo(tipoSeleccionado), aulasList::setAll);
         }
     }
 
@@ -341,48 +334,6 @@ public class AulaController extends BaseController {
         alert.showAndWait();
     }
 
-    // ✅ MÉTODO ADICIONAL: Buscar aulas por múltiples criterios
-    @FXML
-    private void buscarAulasAvanzado() {
-        String criterio = txtBuscar.getText().trim();
-        if (criterio.isEmpty()) {
-            cargarDatos();
-            return;
-        }
-
-        // Intentar buscar por código primero
-        Optional<Aula> aulaPorCodigo = aulaDAO.obtenerPorCodigo(criterio);
-        if (aulaPorCodigo.isPresent()) {
-            aulasList.setAll(FXCollections.observableArrayList(aulaPorCodigo.get()));
-            return;
-        }
-
-        // Buscar por edificio
-        aulasList.setAll(aulaDAO.buscarPorEdificio(criterio));
-        if (!aulasList.isEmpty()) {
-            return;
-        }
-
-        // Buscar por tipo
-        aulasList.setAll(aulaDAO.buscarPorTipo(criterio.toUpperCase()));
-        if (!aulasList.isEmpty()) {
-            return;
-        }
-
-        // Si no encuentra por los métodos anteriores, buscar en toda la lista
-        ObservableList<Aula> todasLasAulas = FXCollections.observableArrayList(aulaDAO.obtenerTodas());
-        aulasList.setAll(todasLasAulas.filtered(a ->
-                a.getNombre().toLowerCase().contains(criterio.toLowerCase()) ||
-                        a.getCodigoAula().toLowerCase().contains(criterio.toLowerCase()) ||
-                        a.getEdificio().toLowerCase().contains(criterio.toLowerCase()) ||
-                        (a.getEquipamiento() != null && a.getEquipamiento().toLowerCase().contains(criterio.toLowerCase()))
-        ));
-
-        if (aulasList.isEmpty()) {
-            mostrarAlerta("Búsqueda", "No se encontraron aulas con el criterio: " + criterio, Alert.AlertType.INFORMATION);
-        }
-    }
-
     // ✅ MÉTODO: Filtrar aulas disponibles
     @FXML
     private void filtrarAulasDisponibles() {
@@ -2,18 +2,50 @@ package com.union.asistencia.controller;
 
 import com.union.asistencia.model.Usuario;
 import com.union.asistencia.service.WatermarkService;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.concurrent.Task;
+import javafx.scene.Cursor;
+import javafx.scene.Node;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TableView;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.StackPane;
+import lombok.extern.java.Log;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Controlador base abstracto para implementación global de watermarks
  * Mantiene compatibilidad con la interfaz existente
+ *
+ * También ofrece la carga de datos en segundo plano: las consultas a los DAO se
+ * ejecutan fuera del hilo de JavaFX y el resultado se publica de una vez en el hilo
+ * de la interfaz. Una nueva carga con la misma clave reemplaza a la anterior, y al
+ * salir de la vista se cancelan todas las pendientes.
  */
+@Log
 public abstract class BaseController {
 
+    /** Hilos compartidos por todas las vistas para consultar la base de datos */
+    private static final ExecutorService EJECUTOR_CARGAS = Executors.newFixedThreadPool(
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())), new FabricaHilos());
+
     protected Usuario usuarioLogueado;
     protected WatermarkService watermarkService;
 
+    /** Última carga lanzada por clave; solo esa puede publicar su resultado */
+    private final Map<String, Task<?>> cargasActivas = new HashMap<>();
+    private final ReadOnlyBooleanWrapper cargando = new ReadOnlyBooleanWrapper(this, "cargando", false);
+
     public BaseController() {
         this.watermarkService = WatermarkService.getInstance();
     }
@@ -66,4 +98,110 @@ public abstract class BaseController {
             System.err.println("❌ Error al actualizar estilo de watermark: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    // ==================== CARGA DE DATOS EN SEGUNDO PLANO ====================
+
+    /**
+     * Ejecuta la consulta en segundo plano y entrega el resultado en el hilo de JavaFX.
+     * Si ya había una carga con la misma clave se cancela y su resultado se descarta.
+     * Debe llamarse desde el hilo de JavaFX.
+     *
+     * @param clave Identifica qué se está cargando (p. ej. "asistencias")
+     * @param consulta Llamada al DAO
+     * @param alTerminar Recibe el resultado en el hilo de JavaFX (típicamente lista::setAll)
+     */
+    protected <T> Task<T> cargarEnSegundoPlano(String clave, Callable<T> consulta, Consumer<T> alTerminar) {
+        Task<T> tarea = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return consulta.call();
+            }
+        };
+
+        tarea.setOnSucceeded(e -> {
+            if (finalizarCarga(clave, tarea)) {
+                alTerminar.accept(tarea.getValue());
+            }
+        });
+        tarea.setOnFailed(e -> {
+            if (finalizarCarga(clave, tarea)) {
+                manejarErrorCarga(clave, tarea.getException());
+            }
+        });
+        tarea.setOnCancelled(e -> finalizarCarga(clave, tarea));
+
+        Task<?> anterior = cargasActivas.put(clave, tarea);
+        if (anterior != null) {
+            anterior.cancel();
+        }
+        cargando.set(true);
+        EJECUTOR_CARGAS.execute(tarea);
+        return tarea;
+    }
+
+    /**
+     * Cancela todas las cargas pendientes de la vista (al navegar a otra pantalla).
+     */
+    public void cancelarCargas() {
+        for (Task<?> tarea : cargasActivas.values().toArray(new Task<?>[0])) {
+            tarea.cancel();
+        }
+        cargasActivas.clear();
+        cargando.set(false);
+    }
+
+    public ReadOnlyBooleanProperty cargandoProperty() {
+        return cargando.getReadOnlyProperty();
+    }
+
+    /**
+     * Mientras haya cargas pendientes la tabla muestra un indicador de progreso (si está
+     * vacía) y el cursor de espera.
+     */
+    protected void mostrarProgresoEn(TableView<?> tabla) {
+        Node placeholderOriginal = tabla.getPlaceholder();
+        ProgressIndicator indicador = new ProgressIndicator();
+        indicador.setMaxSize(48, 48);
+
+        cargando.addListener((obs, antes, ahora) -> {
+            tabla.setPlaceholder(ahora ? indicador : placeholderOriginal);
+            tabla.setCursor(ahora ? Cursor.WAIT : null);
+        });
+    }
+
+    /**
+     * Error de una carga vigente; por defecto se registra y se avisa al usuario.
+     */
+    protected void manejarErrorCarga(String clave, Throwable error) {
+        log.severe("❌ Error al cargar " + clave + ": " + error.getMessage());
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Error");
+        alert.setHeaderText(null);
+        alert.setContentText("No se pudieron cargar los datos (" + clave + "): " + error.getMessage());
+        alert.show();
+    }
+
+    /**
+     * Quita la tarea de las cargas activas. Devuelve false si fue reemplazada por una
+     * carga más reciente de la misma clave (su resultado ya no sirve).
+     */
+    private boolean finalizarCarga(String clave, Task<?> tarea) {
+        boolean vigente = cargasActivas.get(clave) == tarea;
+        if (vigente) {
+            cargasActivas.remove(clave);
+        }
+        cargando.set(!cargasActivas.isEmpty());
+        return vigente && !tarea.isCancelled();
+    }
+
+    private static final class FabricaHilos implements ThreadFactory {
+        private final AtomicInteger contador = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread hilo = new Thread(r, "carga-datos-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.union.asistencia.controller;
+
+import com.union.asistencia.util.TextoBusqueda;
+import javafx.animation.PauseTransition;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.util.Duration;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
+
+/**
+ * Búsqueda mientras se escribe sobre una tabla cuyos datos ya están en memoria.
+ *
+ * La tabla muestra una vista filtrada y ordenable de la lista original, que no se
+ * modifica: guardar, recargar o exportar siguen trabajando con los datos completos.
+ * La clave de búsqueda de cada fila (sus campos en minúsculas y sin tildes) se calcula
+ * una sola vez cuando cambian los datos, no en cada comparación.
+ *
+ * La búsqueda se lanza cuando el usuario deja de escribir (o con Enter) y corre en
+ * segundo plano con la misma clave de carga, así una búsqueda nueva cancela la que
+ * seguía en curso y nunca se muestra un resultado viejo.
+ */
+final class BusquedaIncremental<T> {
+
+    /** Pausa en la escritura a partir de la cual se busca */
+    private static final Duration ESPERA = Duration.millis(250);
+
+    /** Cada cuántas filas se revisa si la búsqueda fue cancelada */
+    private static final int FILAS_POR_REVISION = 1024;
+
+    private final BaseController controlador;
+    private final TextField campo;
+    private final String clave;
+    private final ObservableList<T> filas;
+    private final Function<T, String> textoBusqueda;
+    private final FilteredList<T> visibles;
+    private final PauseTransition espera = new PauseTransition(ESPERA);
+
+    private Indice<T> indice = new Indice<>(List.of(), new String[0]);
+    private String criterioAplicado = "";
+
+    /**
+     * @param textoBusqueda Campos de la fila en los que se busca, p. ej.
+     *                      {@code e -> TextoBusqueda.clave(e.getNombre(), e.getLugar())}
+     */
+    BusquedaIncremental(BaseController controlador, TableView<T> tabla, ObservableList<T> filas,
+                        TextField campo, String clave, Function<T, String> textoBusqueda) {
+        this.controlador = controlador;
+        this.campo = campo;
+        this.clave = clave;
+        this.filas = filas;
+        this.textoBusqueda = textoBusqueda;
+        this.visibles = new FilteredList<>(filas);
+
+        SortedList<T> ordenadas = new SortedList<>(visibles);
+        ordenadas.comparatorProperty().bind(tabla.comparatorProperty());
+        tabla.setItems(ordenadas);
+
+        filas.addListener((ListChangeListener<T>) cambio -> reindexar());
+        espera.setOnFinished(e -> buscar());
+        campo.textProperty().addListener((obs, antes, ahora) -> espera.playFromStart());
+        campo.setOnAction(e -> buscarAhora());
+        reindexar();
+    }
+
+    /**
+     * Busca sin esperar la pausa de escritura (botón "Buscar").
+     */
+    void buscarAhora() {
+        espera.stop();
+        buscar();
+    }
+
+    /**
+     * Recalcula las claves de búsqueda y vuelve a aplicar el criterio vigente. Se llama
+     * solo al cambiar la lista; las vistas cuyas claves dependen de otros datos (p. ej.
+     * nombres de asignaturas) la llaman también cuando esos datos cambian.
+     */
+    void reindexar() {
+        List<T> copia = List.copyOf(filas);
+        String[] claves = new String[copia.size()];
+        for (int i = 0; i < claves.length; i++) {
+            claves[i] = textoBusqueda.apply(copia.get(i));
+        }
+        indice = new Indice<>(copia, claves);
+        aplicar(indice.coincidencias(criterioAplicado));
+    }
+
+    private void buscar() {
+        buscar(TextoBusqueda.normalizar(campo.getText()).trim());
+    }
+
+    private void buscar(String criterio) {
+        Indice<T> actual = indice;
+        controlador.cargarEnSegundoPlano(clave, () -> actual.coincidencias(criterio), coincidencias -> {
+            if (actual != indice) {
+                // Los datos cambiaron mientras se buscaba: el resultado tiene las filas
+                // anteriores y como filtro de las nuevas dejaría la tabla vacía
+                buscar(criterio);
+                return;
+            }
+            criterioAplicado = criterio;
+            aplicar(coincidencias);
+        });
+    }
+
+    private void aplicar(Set<T> coincidencias) {
+        visibles.setPredicate(coincidencias == null ? null : coincidencias::contains);
+    }
+
+    // ==================== ÍNDICE INMUTABLE ====================
+
+    /**
+     * Filas con su clave normalizada. No cambia una vez creado, por eso puede recorrerse
+     * desde el hilo de búsqueda mientras la interfaz sigue funcionando.
+     */
+    private static final class Indice<T> {
+        private final List<T> filas;
+        private final String[] claves;
+
+        private Indice(List<T> filas, String[] claves) {
+            this.filas = filas;
+            this.claves = claves;
+        }
+
+        /**
+         * Filas cuya clave contiene todas las palabras del criterio (ya normalizado),
+         * o null si el criterio está vacío (se muestran todas).
+         */
+        Set<T> coincidencias(String criterio) {
+            if (criterio.isEmpty()) {
+                return null;
+            }
+            String[] palabras = criterio.split("\\s+");
+            Set<T> resultado = Collections.newSetFromMap(new IdentityHashMap<>());
+
+            for (int i = 0; i < claves.length; i++) {
+                if (i % FILAS_POR_REVISION == 0 && Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("Búsqueda reemplazada");
+                }
+                if (contieneTodas(claves[i], palabras)) {
+                    resultado.add(filas.get(i));
+                }
+            }
+            return resultado;
+        }
+
+        private static boolean contieneTodas(String clave, String[] palabras) {
+            for (String palabra : palabras) {
+                if (!clave.contains(palabra)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -67,6 +67,7 @@ public class DocenteController extends BaseController {
         configurarEventos();
 
         tableView.setItems(docentesList);
+        mostrarProgresoEn(tableView);
     }
 
     @FXML
@@ -123,7 +124,7 @@ public class DocenteController extends BaseController {
     }
 
     private void cargarDatos() {
-        docentesList.setAll(docenteDAO.obtenerTodos());
+        cargarEnSegundoPlano("docentes", docenteDAO::obtenerTodos, docentesList::setAll);
     }
 
     @FXML
@@ -260,7 +261,7 @@ public class DocenteController extends BaseController {
         if (criterio.isEmpty()) {
             cargarDatos();
         } else {
-            docentesList.setAll(docenteDAO.buscarPorNombre(criterio));
+            cargarEnSegundoPlano("docentes", () -> docenteDAO.buscarPorNombre(criterio), docentesList::setAll);
         }
     }
 
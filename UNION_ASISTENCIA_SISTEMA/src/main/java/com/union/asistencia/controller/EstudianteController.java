@@ -72,6 +72,7 @@ public class EstudianteController extends BaseController {
             configurarEventos();
 
             tableView.setItems(estudiantesList);
+            mostrarProgresoEn(tableView);
 
             System.out.println("✅ EstudianteController inicializado correctamente");
         } catch (Exception e) {
@@ -136,18 +137,14 @@ public class EstudianteController extends BaseController {
     }
 
     private void cargarDatos() {
-        try {
-            List<Estudiante> estudiantes = estudianteDAO.obtenerTodos();
+        cargarEnSegundoPlano("estudiantes", estudianteDAO::obtenerTodos, estudiantes -> {
             System.out.println("📊 Estudiantes cargados desde BD: " + estudiantes.size());
             estudiantesList.setAll(estudiantes);
 
             if (estudiantes.isEmpty()) {
                 System.out.println("ℹ️ No hay estudiantes en la base de datos");
             }
-        } catch (Exception e) {
-            System.err.println("❌ Error cargando estudiantes desde BD: " + e.getMessage());
-            e.printStackTrace();
-        }
+        });
     }
 
     @FXML
@@ -254,8 +251,8 @@ public class EstudianteController extends BaseController {
         if (criterio.isEmpty()) {
             cargarDatos();
         } else {
-            List<Estudiante> estudiantes = estudianteDAO.buscarPorNombre(criterio);
-            estudiantesList.setAll(estudiantes);
+            // Misma clave que la carga completa: si esta sigue pendiente, se descarta
+            cargarEnSegundoPlano("estudiantes", () -> estudianteDAO.buscarPorNombre(criterio), estudiantesList::setAll);
         }
     }
 
@@ -282,6 +279,14 @@ public class EstudianteController extends BaseController {
                 return;
             }
 
+            if (estudianteDAO.tieneRegistrosAsociados(dni)) {
+                mostrarAlerta("No se puede eliminar",
+                        "El estudiante con DNI " + dni + " tiene asistencias o participaciones en eventos registradas.\n\n" +
+                                "Use \"Eliminar Seleccionado\" para desactivarlo y conservar su historial.",
+                        Alert.AlertType.WARNING);
+                return;
+            }
+
             Alert confirmacion = new Alert(Alert.AlertType.CONFIRMATION);
             confirmacion.setTitle("Confirmar Eliminación");
             confirmacion.setHeaderText("¿Está seguro de eliminar el estudiante con DNI: " + dni + "?");
@@ -4,29 +4,39 @@ import com.union.asistencia.dao.EventoDAO;
 import com.union.asistencia.dao.EstudianteDAO;
 import com.union.asistencia.dao.DocenteDAO;
 import com.union.asistencia.dao.AsistenciaEventoDAO;
+import com.union.asistencia.dao.ResultadoRegistro;
 import com.union.asistencia.model.Evento;
 import com.union.asistencia.model.Estudiante;
 import com.union.asistencia.model.Docente;
 import com.union.asistencia.model.ParticipanteEvento;
 import com.union.asistencia.model.AsistenciaEvento;
 import com.union.asistencia.model.Usuario;
+import com.union.asistencia.service.GeneradorGafetesPDF;
+import com.union.asistencia.util.CacheImagenesQR;
 import com.union.asistencia.util.ExportUtils;
 import com.union.asistencia.util.QRGenerator;
 import com.union.asistencia.util.QRService;
 import com.union.asistencia.util.QRReader;
+import com.union.asistencia.util.TextoBusqueda;
+import javafx.concurrent.Task;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.stage.FileChooser;
 import lombok.extern.java.Log;
 
+import java.io.File;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Log
 public class EventoController extends BaseController {
@@ -65,6 +75,7 @@ public class EventoController extends BaseController {
     @FXML private Button btnCancelar;
     @FXML private Button btnInscribir;
     @FXML private Button btnGenerarQR;
+    @FXML private Button btnGafetesPDF;
     @FXML private Button btnExportar;
     @FXML private Button btnRegistroRapido;
     @FXML private Button btnEliminar;
@@ -82,6 +93,12 @@ public class EventoController extends BaseController {
     private Usuario usuarioLogueado;
     private Evento eventoSeleccionado;
 
+    /** Filtra la tabla de eventos mientras se escribe en txtBuscar */
+    private BusquedaIncremental<Evento> busqueda;
+
+    /** Último QR pedido para imgQREvento; una carga anterior que termine después se descarta */
+    private String qrSolicitado;
+
     @Override
     public void setUsuarioLogueado(Usuario usuario) {
         this.usuarioLogueado = usuario;
@@ -109,8 +126,10 @@ public class EventoController extends BaseController {
             configurarSpinner();
             configurarEventos();
 
-            tableView.setItems(eventosList);
+            busqueda = new BusquedaIncremental<>(this, tableView, eventosList, txtBuscar, "busqueda-eventos",
+                    e -> TextoBusqueda.clave(e.getNombre(), e.getTipo(), e.getLugar(), e.getResponsable()));
             tablaParticipantes.setItems(participantesList);
+            mostrarProgresoEn(tableView);
 
             System.out.println("✅ EventoController inicializado correctamente");
         } catch (Exception e) {
@@ -182,8 +201,8 @@ public class EventoController extends BaseController {
         // Tipos de participante
         cbxTipoParticipante.getItems().addAll("ESTUDIANTE", "DOCENTE", "EXTERNO");
 
-        // Cargar estudiantes y docentes
-        estudiantesList.setAll(estudianteDAO.obtenerTodos());
+        // Cargar estudiantes y docentes (en segundo plano)
+        cargarEnSegundoPlano("estudiantes", estudianteDAO::obtenerTodos, estudiantesList::setAll);
         cbxEstudiante.setItems(estudiantesList);
         cbxEstudiante.setCellFactory(param -> new ListCell<Estudiante>() {
             @Override
@@ -193,7 +212,7 @@ public class EventoController extends BaseController {
             }
         });
 
-        docentesList.setAll(docenteDAO.obtenerTodos());
+        cargarEnSegundoPlano("docentes", docenteDAO::obtenerTodos, docentesList::setAll);
         cbxDocente.setItems(docentesList);
         cbxDocente.setCellFactory(param -> new ListCell<Docente>() {
             @Override
@@ -220,6 +239,14 @@ public class EventoController extends BaseController {
                     }
                 });
 
+        // Mostrar el QR del participante seleccionado (precalentado en la caché)
+        tablaParticipantes.getSelectionModel().selectedItemProperty().addListener(
+                (obs, oldSelection, newSelection) -> {
+                    if (newSelection != null && newSelection.getCodigoQR() != null) {
+                        mostrarQR(newSelection.getCodigoQR(), imagen -> { });
+                    }
+                });
+
         // Cambio en tipo de participante
         cbxTipoParticipante.getSelectionModel().selectedItemProperty().addListener(
                 (obs, oldVal, newVal) -> {
@@ -237,22 +264,50 @@ public class EventoController extends BaseController {
     }
 
     private void cargarDatos() {
-        try {
-            List<Evento> eventos = eventoDAO.obtenerTodos();
+        cargarEnSegundoPlano("eventos", eventoDAO::obtenerTodos, eventos -> {
             System.out.println("📊 Eventos cargados desde BD: " + eventos.size());
             eventosList.setAll(eventos);
 
             if (eventos.isEmpty()) {
                 System.out.println("ℹ️ No hay eventos en la base de datos");
             }
-        } catch (Exception e) {
-            System.err.println("❌ Error cargando eventos desde BD: " + e.getMessage());
-            e.printStackTrace();
+        });
+    }
+
+    /**
+     * Muestra un QR sin codificarlo en el hilo de JavaFX: si ya está en memoria aparece al
+     * instante; si no, el visor queda vacío mientras se obtiene en segundo plano. Solo se
+     * publica el último QR pedido.
+     *
+     * @param alMostrar Recibe la imagen mostrada (null si no se pudo codificar)
+     */
+    private void mostrarQR(String data, Consumer<Image> alMostrar) {
+        qrSolicitado = data;
+        Image enMemoria = CacheImagenesQR.getInstance().obtenerImagenEnMemoria(data);
+        if (enMemoria != null) {
+            imgQREvento.setImage(enMemoria);
+            alMostrar.accept(enMemoria);
+            return;
         }
+        imgQREvento.setImage(null);
+        cargarEnSegundoPlano("qr", () -> CacheImagenesQR.getInstance().obtenerImagen(data), imagen -> {
+            if (data.equals(qrSolicitado)) {
+                imgQREvento.setImage(imagen);
+                alMostrar.accept(imagen);
+            }
+        });
     }
 
     private void cargarParticipantesEvento(Integer eventoId) {
-        participantesList.setAll(eventoDAO.obtenerParticipantesPorEvento(eventoId));
+        // Al cambiar rápido de evento solo se publica la lista del último seleccionado
+        cargarEnSegundoPlano("participantes", () -> eventoDAO.obtenerParticipantesPorEvento(eventoId), participantes -> {
+            participantesList.setAll(participantes);
+
+            // Codificar en segundo plano los QR de los participantes para mostrarlos o imprimirlos sin espera
+            CacheImagenesQR.getInstance().precalentar(participantes.stream()
+                    .map(ParticipanteEvento::getCodigoQR)
+                    .collect(Collectors.toList()));
+        });
     }
 
 
@@ -293,8 +348,14 @@ public class EventoController extends BaseController {
                 return;
             }
 
-            // Verificar si ya está registrado en participantes_evento (TABLA QUE SE MUESTRA)
-            if (asistenciaEventoDAO.existeParticipante(estudiante.getId(), eventoSeleccionado.getId())) {
+            // Registro atómico en participantes_evento (TABLA QUE SE MUESTRA): inserta o marca
+            // asistio en una sola sentencia, sin ventana entre la verificación y la inserción
+            ResultadoRegistro resultado = asistenciaEventoDAO.marcarAsistenciaParticipante(
+                    estudiante.getId(),
+                    eventoSeleccionado.getId()
+            );
+
+            if (resultado == ResultadoRegistro.YA_REGISTRADO) {
                 mostrarAlerta("Ya Registrado",
                         "⚠️ El estudiante ya está registrado para este evento:\n" +
                                 "• Estudiante: " + estudiante.getNombreCompleto() + "\n" +
@@ -305,13 +366,7 @@ public class EventoController extends BaseController {
                 return;
             }
 
-            // Registrar en participantes_evento (ESTA ES LA TABLA QUE SE MUESTRA)
-            boolean exito = asistenciaEventoDAO.registrarAsistenciaParticipante(
-                    estudiante.getId(),
-                    eventoSeleccionado.getId()
-            );
-
-            if (exito) {
+            if (resultado == ResultadoRegistro.REGISTRADO) {
                 mostrarAlerta("Asistencia Registrada",
                         "✅ Asistencia registrada exitosamente\n\n" +
                                 "• Estudiante: " + estudiante.getNombreCompleto() + "\n" +
@@ -416,6 +471,7 @@ public class EventoController extends BaseController {
             participante.setCodigoQR(codigoQR);
 
             if (eventoDAO.inscribirParticipante(participante)) {
+                CacheImagenesQR.getInstance().precalentar(List.of(codigoQR));
                 mostrarAlerta("Éxito", "Participante inscrito correctamente", Alert.AlertType.INFORMATION);
                 limpiarFormularioInscripcion();
                 cargarParticipantesEvento(eventoSeleccionado.getId());
@@ -431,17 +487,61 @@ public class EventoController extends BaseController {
             String qrData = "Evento: " + eventoSeleccionado.getNombre() +
                     "\nFecha: " + eventoSeleccionado.getFechaHoraInicio() +
                     "\nLugar: " + eventoSeleccionado.getLugar();
-            var qrImage = QRGenerator.generarQRCode(qrData, 200, 200);
-            if (qrImage != null) {
-                imgQREvento.setImage(qrImage);
-            } else {
-                mostrarAlerta("Error", "No se pudo generar el código QR", Alert.AlertType.ERROR);
-            }
+            mostrarQR(qrData, qrImage -> {
+                if (qrImage == null) {
+                    mostrarAlerta("Error", "No se pudo generar el código QR", Alert.AlertType.ERROR);
+                }
+            });
         } else {
             mostrarAlerta("Advertencia", "Seleccione un evento para generar QR", Alert.AlertType.WARNING);
         }
     }
 
+    @FXML
+    private void generarGafetesPDF() {
+        if (eventoSeleccionado == null) {
+            mostrarAlerta("Advertencia", "Seleccione un evento para generar gafetes", Alert.AlertType.WARNING);
+            return;
+        }
+        Evento evento = eventoSeleccionado;
+
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Guardar gafetes del evento");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("PDF", "*.pdf"));
+        chooser.setInitialFileName("Gafetes_" + evento.getNombre().replaceAll("[^\\p{L}\\p{N}]+", "_") + ".pdf");
+        File archivo = chooser.showSaveDialog(tableView.getScene().getWindow());
+        if (archivo == null) {
+            return;
+        }
+
+        Task<GeneradorGafetesPDF.Resumen> tarea = new Task<>() {
+            @Override
+            protected GeneradorGafetesPDF.Resumen call() throws Exception {
+                return new GeneradorGafetesPDF().generar(evento, archivo.toPath());
+            }
+        };
+
+        tarea.setOnSucceeded(e -> {
+            btnGafetesPDF.setDisable(false);
+            GeneradorGafetesPDF.Resumen resumen = tarea.getValue();
+            mostrarAlerta("Gafetes Generados",
+                    String.format("✅ %d gafetes en %d hojas (%.1f s)%n📄 %s",
+                            resumen.getGafetes(), resumen.getHojas(), resumen.getMs() / 1000.0, archivo.getName()),
+                    Alert.AlertType.INFORMATION);
+        });
+        tarea.setOnFailed(e -> {
+            btnGafetesPDF.setDisable(false);
+            log.severe("❌ Error al generar gafetes: " + tarea.getException().getMessage());
+            mostrarAlerta("Error", "No se pudieron generar los gafetes: " + tarea.getException().getMessage(),
+                    Alert.AlertType.ERROR);
+        });
+
+        btnGafetesPDF.setDisable(true);
+        Thread hilo = new Thread(tarea, "gafetes-pdf");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
     @FXML
     private void eliminarEvento() {
         if (eventoSeleccionado != null) {
@@ -471,24 +571,8 @@ public class EventoController extends BaseController {
 
     @FXML
     private void buscarEventos() {
-        String criterio = txtBuscar.getText().trim();
-        if (criterio.isEmpty()) {
-            cargarDatos();
-        } else {
-            // Crear una nueva lista filtrada de manera segura
-            ObservableList<Evento> listaFiltrada = FXCollections.observableArrayList();
-
-            for (Evento e : eventosList) {
-                if (e.getNombre().toLowerCase().contains(criterio.toLowerCase()) ||
-                        e.getTipo().toLowerCase().contains(criterio.toLowerCase()) ||
-                        e.getLugar().toLowerCase().contains(criterio.toLowerCase())) {
-                    listaFiltrada.add(e);
-                }
-            }
-
-            // Actualizar la tabla de manera segura
-            tableView.getItems().setAll(listaFiltrada);
-        }
+        // La tabla ya se filtra mientras se escribe; el botón solo evita la espera
+        busqueda.buscarAhora();
     }
 
     @FXML
@@ -10,8 +10,10 @@ import com.union.asistencia.model.Docente;
 import com.union.asistencia.model.Aula;
 import com.union.asistencia.model.Usuario;
 import com.union.asistencia.util.ExportUtils;
+import com.union.asistencia.util.TextoBusqueda;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
@@ -20,7 +22,9 @@ import lombok.extern.java.Log;
 
 import java.time.DayOfWeek;
 import java.time.LocalTime;
+import java.time.format.TextStyle;
 import java.util.Arrays;
+import java.util.Locale;
 
 @Log
 public class HorarioController extends BaseController {
@@ -61,6 +65,9 @@ public class HorarioController extends BaseController {
     private Usuario usuarioLogueado;
     private Horario horarioSeleccionado;
 
+    /** Filtra la tabla de horarios mientras se escribe en txtBuscar */
+    private BusquedaIncremental<Horario> busqueda;
+
     @Override
     public void setUsuarioLogueado(Usuario usuario) {
         this.usuarioLogueado = usuario;
@@ -85,7 +92,12 @@ public class HorarioController extends BaseController {
         configurarCombobox();
         configurarEventos();
 
-        tableView.setItems(horariosList);
+        busqueda = new BusquedaIncremental<>(this, tableView, horariosList, txtBuscar, "busqueda-horarios",
+                this::claveBusqueda);
+        // La clave incluye nombres de asignatura y docente, que llegan en otra carga
+        asignaturasList.addListener((ListChangeListener<Asignatura>) cambio -> busqueda.reindexar());
+        docentesList.addListener((ListChangeListener<Docente>) cambio -> busqueda.reindexar());
+        mostrarProgresoEn(tableView);
     }
 
     private void inicializar() {
@@ -173,13 +185,13 @@ public class HorarioController extends BaseController {
         cbxTipo.getItems().addAll("TEORIA", "PRACTICA", "LABORATORIO");
 
         // Aulas disponibles
-        aulasList.setAll(aulaDAO.obtenerDisponibles().stream()
+        cargarEnSegundoPlano("aulas", () -> aulaDAO.obtenerDisponibles().stream()
                 .map(Aula::getCodigoAula)
-                .toList());
+                .toList(), aulasList::setAll);
         cbxAula.setItems(aulasList);
 
         // Asignaturas
-        asignaturasList.setAll(asignaturaDAO.obtenerTodos());
+        cargarEnSegundoPlano("asignaturas", asignaturaDAO::obtenerTodos, asignaturasList::setAll);
         cbxAsignatura.setItems(asignaturasList);
         cbxAsignatura.setCellFactory(param -> new ListCell<Asignatura>() {
             @Override
@@ -190,7 +202,7 @@ public class HorarioController extends BaseController {
         });
 
         // Docentes
-        docentesList.setAll(docenteDAO.obtenerTodos());
+        cargarEnSegundoPlano("docentes", docenteDAO::obtenerTodos, docentesList::setAll);
         cbxDocente.setItems(docentesList);
         cbxDocente.setCellFactory(param -> new ListCell<Docente>() {
             @Override
@@ -218,7 +230,7 @@ public class HorarioController extends BaseController {
     }
 
     private void cargarDatos() {
-        horariosList.setAll(horarioDAO.obtenerTodos());
+        cargarEnSegundoPlano("horarios", horarioDAO::obtenerTodos, horariosList::setAll);
     }
 
     @FXML
@@ -300,51 +312,30 @@ public class HorarioController extends BaseController {
 
     @FXML
     private void buscarHorarios() {
-        String criterio = txtBuscar.getText().trim();
-        if (criterio.isEmpty()) {
-            cargarDatos();
-        } else {
-            // Implementar búsqueda segura
-            ObservableList<Horario> listaFiltrada = FXCollections.observableArrayList();
-
-            for (Horario horario : horariosList) {
-                // Buscar por día, aula, asignatura o docente
-                String dia = horario.getDiaSemana() != null ?
-                        horario.getDiaSemana().getDisplayName(java.time.format.TextStyle.FULL, java.util.Locale.getDefault()) : "";
-                String aula = horario.getAula() != null ? horario.getAula() : "";
-                String tipo = horario.getTipo() != null ? horario.getTipo() : "";
-
-                // Buscar nombre de asignatura
-                String nombreAsignatura = "";
-                if (horario.getAsignaturaId() != null) {
-                    Asignatura asignatura = asignaturasList.stream()
-                            .filter(a -> a.getId().equals(horario.getAsignaturaId()))
-                            .findFirst()
-                            .orElse(null);
-                    nombreAsignatura = asignatura != null ? asignatura.getNombre() : "";
-                }
+        // La tabla ya se filtra mientras se escribe; el botón solo evita la espera
+        busqueda.buscarAhora();
+    }
 
-                // Buscar nombre de docente
-                String nombreDocente = "";
-                if (horario.getDocenteId() != null) {
-                    Docente docente = docentesList.stream()
-                            .filter(d -> d.getId().equals(horario.getDocenteId()))
-                            .findFirst()
-                            .orElse(null);
-                    nombreDocente = docente != null ? docente.getNombreCompleto() : "";
-                }
+    /**
+     * Texto en el que se busca cada horario: día, aula, tipo, asignatura y docente.
+     * Se calcula una vez por carga de datos, no en cada búsqueda.
+     */
+    private String claveBusqueda(Horario horario) {
+        String dia = horario.getDiaSemana() != null ?
+                horario.getDiaSemana().getDisplayName(TextStyle.FULL, Locale.getDefault()) : null;
 
-                if (dia.toLowerCase().contains(criterio.toLowerCase()) ||
-                        aula.toLowerCase().contains(criterio.toLowerCase()) ||
-                        tipo.toLowerCase().contains(criterio.toLowerCase()) ||
-                        nombreAsignatura.toLowerCase().contains(criterio.toLowerCase()) ||
-                        nombreDocente.toLowerCase().contains(criterio.toLowerCase())) {
-                    listaFiltrada.add(horario);
-                }
-            }
+        Asignatura asignatura = asignaturasList.stream()
+                .filter(a -> a.getId().equals(horario.getAsignaturaId()))
+                .findFirst()
+                .orElse(null);
+        Docente docente = docentesList.stream()
+                .filter(d -> d.getId().equals(horario.getDocenteId()))
+                .findFirst()
+                .orElse(null);
 
-            tableView.getItems().setAll(listaFiltrada);
-        }
+        return TextoBusqueda.clave(dia, horario.getAula(), horario.getTipo(),
+                asignatura != null ? asignatura.getNombre() : null,
+                docente != null ? docente.getNombreCompleto() : null);
     }
 
     @FXML
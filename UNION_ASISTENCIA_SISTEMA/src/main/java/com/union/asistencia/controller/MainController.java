@@ -35,6 +35,8 @@ public class MainController extends BaseController {
     private Timeline carruselTimeline;
     private StackPane watermarkContainer;
     private Usuario usuarioLogueado;
+    /** Controlador de la vista mostrada en contentPane, para cancelar sus cargas al salir */
+    private BaseController controladorActual;
 
     @FXML
     private void initialize() {
@@ -297,9 +299,15 @@ public class MainController extends BaseController {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/union/asistencia/view/" + fxmlName + ".fxml"));
             Parent root = loader.load();
 
+            if (controladorActual != null) {
+                controladorActual.cancelarCargas();
+                controladorActual = null;
+            }
+
             Object controller = loader.getController();
             if (controller instanceof BaseController) {
-                ((BaseController) controller).setUsuarioLogueado(usuarioLogueado);
+                controladorActual = (BaseController) controller;
+                controladorActual.setUsuarioLogueado(usuarioLogueado);
             }
 
             contentPane.getChildren().setAll(root);
@@ -0,0 +1,188 @@
+package com.union.asistencia.controller;
+
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+import javafx.scene.control.skin.VirtualFlow;
+
+import java.util.List;
+
+/**
+ * Carga perezosa de una tabla por páginas mientras el usuario se desplaza.
+ *
+ * La tabla contiene solo una ventana de filas (como máximo {@code maxFilas}): al
+ * llegar al final se pide la página siguiente y, si la ventana se pasa del máximo, se
+ * descartan las filas del principio; al volver al inicio se recuperan las anteriores
+ * y se descartan las del final. Las páginas se piden por clave a partir de la primera
+ * o última fila de la ventana, así la memoria depende del tamaño de la ventana y no
+ * del total de registros.
+ *
+ * Las consultas usan la carga en segundo plano del controlador, con una sola clave:
+ * reiniciar la tabla (p. ej. al cambiar un filtro) descarta cualquier página en curso.
+ *
+ * La tabla no se puede ordenar por columnas: la ventana debe quedar en el orden de la
+ * fuente, porque de sus extremos salen las claves de la página siguiente o anterior y
+ * de ellos se descartan filas al recortarla.
+ */
+final class PaginadorTabla<T> {
+
+    /**
+     * Origen de las páginas, en el mismo orden en que se muestran.
+     */
+    interface FuentePaginas<T> {
+        /** Filas que siguen a {@code ultima}, o la primera página si es null */
+        List<T> siguientes(T ultima, int limite);
+
+        /** Filas que preceden a {@code primera}, en el orden de la tabla */
+        List<T> anteriores(T primera, int limite);
+    }
+
+    /** Fracción del recorrido de la barra a partir de la cual se pide otra página */
+    private static final double UMBRAL = 0.1;
+
+    private final BaseController controlador;
+    private final TableView<T> tabla;
+    private final ObservableList<T> filas;
+    private final String clave;
+    private final int tamanioPagina;
+    private final int maxFilas;
+
+    private FuentePaginas<T> fuente;
+    private Task<List<T>> pendiente;
+    private boolean hayMasAbajo;
+    private boolean hayMasArriba;
+
+    PaginadorTabla(BaseController controlador, TableView<T> tabla, ObservableList<T> filas,
+                   String clave, int tamanioPagina, int paginasEnMemoria) {
+        this.controlador = controlador;
+        this.tabla = tabla;
+        this.filas = filas;
+        this.clave = clave;
+        this.tamanioPagina = tamanioPagina;
+        this.maxFilas = tamanioPagina * Math.max(2, paginasEnMemoria);
+
+        tabla.getColumns().forEach(columna -> columna.setSortable(false));
+        tabla.setSortPolicy(t -> false);
+
+        // La barra de desplazamiento existe recién cuando la tabla tiene skin
+        tabla.skinProperty().addListener((obs, antes, ahora) -> {
+            if (ahora != null) {
+                vigilarDesplazamiento();
+            }
+        });
+        if (tabla.getSkin() != null) {
+            vigilarDesplazamiento();
+        }
+    }
+
+    /**
+     * Vacía la ventana y carga la primera página de la fuente indicada.
+     */
+    void reiniciar(FuentePaginas<T> nuevaFuente) {
+        this.fuente = nuevaFuente;
+        hayMasAbajo = false;
+        hayMasArriba = false;
+
+        pendiente = controlador.cargarEnSegundoPlano(clave,
+                () -> nuevaFuente.siguientes(null, tamanioPagina),
+                pagina -> {
+                    filas.setAll(pagina);
+                    hayMasAbajo = pagina.size() == tamanioPagina;
+                    tabla.scrollTo(0);
+                });
+    }
+
+    /**
+     * Vuelve a cargar desde el principio con la fuente actual.
+     */
+    void recargar() {
+        if (fuente != null) {
+            reiniciar(fuente);
+        }
+    }
+
+    // ==================== DESPLAZAMIENTO ====================
+
+    private void vigilarDesplazamiento() {
+        for (Node nodo : tabla.lookupAll(".scroll-bar")) {
+            if (nodo instanceof ScrollBar && ((ScrollBar) nodo).getOrientation() == Orientation.VERTICAL) {
+                ScrollBar barra = (ScrollBar) nodo;
+                barra.valueProperty().addListener((obs, antes, valor) -> {
+                    double recorrido = barra.getMax() - barra.getMin();
+                    if (valor.doubleValue() >= barra.getMax() - recorrido * UMBRAL) {
+                        cargarSiguiente();
+                    } else if (valor.doubleValue() <= barra.getMin() + recorrido * UMBRAL) {
+                        cargarAnterior();
+                    }
+                });
+                return;
+            }
+        }
+    }
+
+    private boolean ocupado() {
+        return fuente == null || (pendiente != null && !pendiente.isDone());
+    }
+
+    private void cargarSiguiente() {
+        if (!hayMasAbajo || ocupado() || filas.isEmpty()) {
+            return;
+        }
+        FuentePaginas<T> origen = fuente;
+        T ultima = filas.get(filas.size() - 1);
+
+        pendiente = controlador.cargarEnSegundoPlano(clave,
+                () -> origen.siguientes(ultima, tamanioPagina),
+                pagina -> {
+                    hayMasAbajo = pagina.size() == tamanioPagina;
+                    int primeraVisible = primeraFilaVisible();
+                    filas.addAll(pagina);
+
+                    int sobrantes = filas.size() - maxFilas;
+                    if (sobrantes > 0) {
+                        filas.remove(0, sobrantes);
+                        hayMasArriba = true;
+                        // Mantener a la vista las mismas filas tras quitar las de arriba
+                        tabla.scrollTo(Math.max(0, primeraVisible - sobrantes));
+                    }
+                });
+    }
+
+    private void cargarAnterior() {
+        if (!hayMasArriba || ocupado() || filas.isEmpty()) {
+            return;
+        }
+        FuentePaginas<T> origen = fuente;
+        T primera = filas.get(0);
+
+        pendiente = controlador.cargarEnSegundoPlano(clave,
+                () -> origen.anteriores(primera, tamanioPagina),
+                pagina -> {
+                    hayMasArriba = pagina.size() == tamanioPagina;
+                    int primeraVisible = primeraFilaVisible();
+                    filas.addAll(0, pagina);
+
+                    int sobrantes = filas.size() - maxFilas;
+                    if (sobrantes > 0) {
+                        filas.remove(filas.size() - sobrantes, filas.size());
+                        hayMasAbajo = true;
+                    }
+                    tabla.scrollTo(primeraVisible + pagina.size());
+                });
+    }
+
+    private int primeraFilaVisible() {
+        Node nodo = tabla.lookup(".virtual-flow");
+        if (nodo instanceof VirtualFlow) {
+            IndexedCell<?> celda = ((VirtualFlow<?>) nodo).getFirstVisibleCell();
+            if (celda != null) {
+                return celda.getIndex();
+            }
+        }
+        return 0;
+    }
+}
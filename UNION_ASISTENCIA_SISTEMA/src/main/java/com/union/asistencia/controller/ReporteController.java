@@ -1,6 +1,7 @@
 package com.union.asistencia.controller;
 
 import com.union.asistencia.dao.ReporteDAO;
+import com.union.asistencia.model.ResultadoReporte;
 import com.union.asistencia.model.Usuario;
 import com.union.asistencia.util.ExportUtils;
 import javafx.beans.property.SimpleStringProperty;
@@ -10,16 +11,15 @@ import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import lombok.extern.java.Log;
-import javafx.beans.property.SimpleStringProperty;
 
 import java.time.LocalDate;
-import java.util.List;
-import java.util.Map;
+import java.util.stream.IntStream;
 
 @Log
 public class ReporteController extends BaseController {
 
-    @FXML private TableView<Map<String, Object>> tableView;
+    /** Cada ítem es el número de fila dentro del reporte mostrado */
+    @FXML private TableView<Integer> tableView;
     @FXML private ComboBox<String> cbxTipoReporte;
     @FXML private DatePicker dpFechaInicio;
     @FXML private DatePicker dpFechaFin;
@@ -30,7 +30,7 @@ public class ReporteController extends BaseController {
 
     private ReporteDAO reporteDAO;
     private Usuario usuarioLogueado;
-    private ObservableList<Map<String, Object>> reporteData;
+    private ObservableList<Integer> reporteData;
 
     @Override
     public void setUsuarioLogueado(Usuario usuario) {
@@ -114,7 +114,7 @@ public class ReporteController extends BaseController {
         }
 
         try {
-            List<Map<String, Object>> datos;
+            ResultadoReporte datos;
 
             switch (tipoReporte) {
                 case "Asistencia Mensual":
@@ -129,21 +129,20 @@ public class ReporteController extends BaseController {
                             dpFechaInicio.getValue(), dpFechaFin.getValue());
                     break;
                 case "Estadísticas Generales":
-                    Map<String, Object> estadisticas = reporteDAO.generarEstadisticasGenerales(
+                    datos = reporteDAO.generarEstadisticasGenerales(
                             dpFechaInicio.getValue(), dpFechaFin.getValue());
-                    // Convertir a lista para mostrar en tabla
-                    datos = List.of(estadisticas);
                     break;
                 case "Participación en Eventos":
                     datos = reporteDAO.generarReporteParticipacionEventos(
                             dpFechaInicio.getValue(), dpFechaFin.getValue());
                     break;
                 default:
-                    datos = List.of();
+                    datos = ResultadoReporte.vacio();
             }
 
-            reporteData.setAll(datos);
+            reporteData.clear();
             configurarColumnas(datos);
+            reporteData.setAll(IntStream.range(0, datos.getFilas()).boxed().toArray(Integer[]::new));
 
         } catch (Exception e) {
             log.severe("Error al generar reporte: " + e.getMessage());
@@ -151,28 +150,26 @@ public class ReporteController extends BaseController {
         }
     }
 
-    private void configurarColumnas(List<Map<String, Object>> datos) {
+    private void configurarColumnas(ResultadoReporte datos) {
         tableView.getColumns().clear();
 
-        if (!datos.isEmpty()) {
-            Map<String, Object> primeraFila = datos.get(0);
-            for (String key : primeraFila.keySet()) {
-                TableColumn<Map<String, Object>, String> columna = new TableColumn<>(key);
-
-                // ✅ CORRECCIÓN: Usar CellValueFactory personalizado para Map
-                columna.setCellValueFactory(cellData -> {
-                    Map<String, Object> item = cellData.getValue();
-                    Object value = item.get(key);
-                    return new SimpleStringProperty(value != null ? value.toString() : "");
-                });
-
-                tableView.getColumns().add(columna);
+        // Las columnas salen del esquema del reporte, siempre en el mismo orden
+        for (int i = 0; i < datos.getColumnas().size(); i++) {
+            ResultadoReporte.Columna definicion = datos.getColumnas().get(i);
+            int indice = i;
+            TableColumn<Integer, String> columna = new TableColumn<>(definicion.getNombre());
+
+            // El texto se formatea solo para las celdas que se pintan
+            columna.setCellValueFactory(cellData ->
+                    new SimpleStringProperty(datos.formatear(indice, cellData.getValue())));
+            if (definicion.getTipo() != ResultadoReporte.TipoColumna.TEXTO) {
+                columna.setStyle("-fx-alignment: CENTER-RIGHT;");
             }
 
-            System.out.println("✅ Columnas configuradas: " + tableView.getColumns().size());
-        } else {
-            System.out.println("ℹ️ No hay datos para configurar columnas");
+            tableView.getColumns().add(columna);
         }
+
+        log.fine("✅ Columnas configuradas: " + tableView.getColumns().size());
     }
 
     @FXML
@@ -72,6 +72,7 @@ public class UsuarioController extends BaseController {
         configurarEventos();
 
         tableView.setItems(usuariosList);
+        mostrarProgresoEn(tableView);
     }
 
     private void inicializar() {
@@ -140,14 +141,11 @@ public class UsuarioController extends BaseController {
     }
 
     private void cargarDatos() {
-        try {
-            // ✅ SOLUCIÓN: Cargar solo usuarios activos
-            usuariosList.setAll(usuarioDAO.obtenerActivos());
+        // ✅ SOLUCIÓN: Cargar solo usuarios activos
+        cargarEnSegundoPlano("usuarios", usuarioDAO::obtenerActivos, usuarios -> {
+            usuariosList.setAll(usuarios);
             System.out.println("✅ Tabla actualizada con " + usuariosList.size() + " usuarios activos");
-        } catch (Exception e) {
-            System.err.println("❌ Error al cargar usuarios: " + e.getMessage());
-            mostrarAlerta("Error", "No se pudieron cargar los usuarios: " + e.getMessage(), Alert.AlertType.ERROR);
-        }
+        });
     }
 
     @FXML
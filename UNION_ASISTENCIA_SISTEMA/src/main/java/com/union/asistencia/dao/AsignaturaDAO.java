@@ -124,19 +124,27 @@ public class AsignaturaDAO {
         }
     }
 
+    /**
+     * Busca por prefijo de palabras en nombre y código usando el índice FTS5 (sin
+     * distinguir tildes ni mayúsculas), ordenado por relevancia.
+     */
     public List<Asignatura> buscarPorNombre(String criterio) {
+        String expresion = BusquedaTextoCompleto.expresionPrefijos(criterio);
+        if (expresion == null) {
+            return obtenerTodos();
+        }
+
         List<Asignatura> asignaturas = new ArrayList<>();
         String sql = "SELECT a.*, d.nombre as docente_nombre, d.apellido as docente_apellido " +
-                "FROM asignaturas a LEFT JOIN docentes d ON a.docente_id = d.id " +
-                "WHERE a.activo = TRUE AND (a.nombre LIKE ? OR a.codigo_asignatura LIKE ?) " +
-                "ORDER BY a.nombre";
+                "FROM asignaturas_fts f JOIN asignaturas a ON a.id = f.rowid " +
+                "LEFT JOIN docentes d ON a.docente_id = d.id " +
+                "WHERE asignaturas_fts MATCH ? AND a.activo = TRUE " +
+                "ORDER BY f.rank, a.nombre";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            String likeCriterio = "%" + criterio + "%";
-            stmt.setString(1, likeCriterio);
-            stmt.setString(2, likeCriterio);
+            stmt.setString(1, expresion);
 
             ResultSet rs = stmt.executeQuery();
 
@@ -4,62 +4,136 @@ import com.union.asistencia.model.Asistencia;
 import com.union.asistencia.model.Estudiante;
 import com.union.asistencia.model.Asignatura;
 import com.union.asistencia.model.Docente;
+import com.union.asistencia.model.FiltroAsistencia;
 import com.union.asistencia.util.DateUtils;
 import lombok.extern.java.Log;
 
 import java.sql.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 
 @Log
 public class AsistenciaDAO {
 
     public boolean guardar(Asistencia asistencia) {
+        try {
+            // Espera a que el lote que contiene esta fila se confirme
+            guardarAsync(asistencia).join();
+            log.info("✅ Asistencia guardada exitosamente - ID: " + asistencia.getId());
+            return true;
+        } catch (CompletionException e) {
+            log.severe("❌ Error al guardar asistencia: " + e.getCause().getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Encola la inserción en la cola de escritura agrupada. Al confirmarse el lote
+     * se asigna el ID generado a la asistencia y se completa el futuro.
+     *
+     * @param asistencia Asistencia a insertar
+     * @return Futuro con el ID generado
+     */
+    public CompletableFuture<Integer> guardarAsync(Asistencia asistencia) {
         // Consulta SQL para insertar nuevo registro de asistencia
         String sql = "INSERT INTO asistencias (fecha_hora, estado, observaciones, tipo_registro, " +
                 "estudiante_id, asignatura_id, docente_id, evento_id) " +
                 "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        return ColaEscrituraAsistencias.getInstance().encolar(sql, stmt -> asignarParametros(stmt, asistencia))
+                .thenApply(id -> {
+                    if (id != null) {
+                        asistencia.setId(id.intValue());
+                    }
+                    return asistencia.getId();
+                });
+    }
 
-            // ==================== ASIGNACIÓN DE PARÁMETROS A LA CONSULTA ====================
-            // Parámetro 1: Fecha y hora formateada para SQLite
-            stmt.setString(1, DateUtils.formatDateTimeForSQLite(asistencia.getFechaHora()));
-            // Parámetro 2: Estado de la asistencia
-            stmt.setString(2, asistencia.getEstado());
-            // Parámetro 3: Observaciones adicionales
-            stmt.setString(3, asistencia.getObservaciones());
-            // Parámetro 4: Tipo de registro utilizado
-            stmt.setString(4, asistencia.getTipoRegistro());
-            // Parámetro 5: ID del estudiante
-            stmt.setInt(5, asistencia.getEstudianteId());
-            // Parámetro 6: ID de la asignatura
-            stmt.setInt(6, asistencia.getAsignaturaId());
-            // Parámetro 7: ID del docente
-            stmt.setInt(7, asistencia.getDocenteId());
-            // Parámetro 8: ID del evento (puede ser nulo)
-            stmt.setObject(8, asistencia.getEventoId(), Types.INTEGER);
+    /**
+     * Guarda varias asistencias con una sola ejecución por lotes (addBatch/executeBatch)
+     * dentro de una transacción. Pensado para marcar una sección completa de una vez.
+     *
+     * @param asistencias Asistencias a insertar
+     * @return IDs generados en el mismo orden de la lista, o lista vacía si falló
+     */
+    public List<Integer> guardarLote(List<Asistencia> asistencias) {
+        List<Integer> ids = new ArrayList<>(asistencias.size());
+        if (asistencias.isEmpty()) {
+            return ids;
+        }
 
-            // Ejecutar la inserción y obtener número de filas afectadas
-            int affectedRows = stmt.executeUpdate();
+        String sql = "INSERT INTO asistencias (fecha_hora, estado, observaciones, tipo_registro, " +
+                "estudiante_id, asignatura_id, docente_id, evento_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
 
-            // Verificar si la inserción fue exitosa y obtener el ID generado
-            if (affectedRows > 0) {
-                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        asistencia.setId(generatedKeys.getInt(1));
-                        log.info("✅ Asistencia guardada exitosamente - ID: " + asistencia.getId());
-                    }
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql);
+                 Statement ultimoId = conn.createStatement()) {
+
+                for (Asistencia asistencia : asistencias) {
+                    asignarParametros(stmt, asistencia);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+
+                // La transacción mantiene el bloqueo de escritura desde el primer INSERT,
+                // así que los IDs AUTOINCREMENT del lote son consecutivos
+                long ultimo;
+                try (ResultSet rs = ultimoId.executeQuery("SELECT last_insert_rowid()")) {
+                    ultimo = rs.next() ? rs.getLong(1) : 0;
+                }
+                conn.commit();
+
+                long primero = ultimo - asistencias.size() + 1;
+                for (int i = 0; i < asistencias.size(); i++) {
+                    int id = (int) (primero + i);
+                    asistencias.get(i).setId(id);
+                    ids.add(id);
                 }
-                return true;
+                log.info("✅ Lote de " + ids.size() + " asistencias guardado - IDs " + primero + " a " + ultimo);
+            } catch (SQLException e) {
+                conn.rollback();
+                ids.clear();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
         } catch (SQLException e) {
-            log.severe("❌ Error al guardar asistencia: " + e.getMessage());
+            log.severe("❌ Error al guardar lote de asistencias: " + e.getMessage());
         }
-        return false;
+        return ids;
+    }
+
+    /**
+     * Asigna los parámetros comunes del INSERT de asistencia.
+     */
+    private void asignarParametros(PreparedStatement stmt, Asistencia asistencia) throws SQLException {
+        // ==================== ASIGNACIÓN DE PARÁMETROS A LA CONSULTA ====================
+        // Parámetro 1: Fecha y hora formateada para SQLite
+        stmt.setString(1, DateUtils.formatDateTimeForSQLite(asistencia.getFechaHora()));
+        // Parámetro 2: Estado de la asistencia
+        stmt.setString(2, asistencia.getEstado());
+        // Parámetro 3: Observaciones adicionales
+        stmt.setString(3, asistencia.getObservaciones());
+        // Parámetro 4: Tipo de registro utilizado
+        stmt.setString(4, asistencia.getTipoRegistro());
+        // Parámetro 5: ID del estudiante
+        stmt.setInt(5, asistencia.getEstudianteId());
+        // Parámetro 6: ID de la asignatura
+        stmt.setInt(6, asistencia.getAsignaturaId());
+        // Parámetro 7: ID del docente
+        stmt.setInt(7, asistencia.getDocenteId());
+        // Parámetro 8: ID del evento (puede ser nulo)
+        stmt.setObject(8, asistencia.getEventoId(), Types.INTEGER);
     }
 
     /**
@@ -100,6 +174,132 @@ public class AsistenciaDAO {
         return asistencias;
     }
 
+    // ==================== PAGINACIÓN POR CLAVE (fecha_hora, id) ====================
+
+    private static final String SELECT_CON_RELACIONES =
+            "SELECT a.*, e.nombre as estudiante_nombre, e.apellido as estudiante_apellido, " +
+            "e.codigo_estudiante, asig.nombre as asignatura_nombre, " +
+            "d.nombre as docente_nombre, d.apellido as docente_apellido " +
+            "FROM asistencias a " +
+            "JOIN estudiantes e ON a.estudiante_id = e.id " +
+            "JOIN asignaturas asig ON a.asignatura_id = asig.id " +
+            "JOIN docentes d ON a.docente_id = d.id ";
+
+    /**
+     * Página de asistencias en el orden de la tabla (fecha_hora DESC, id DESC) que sigue
+     * a la fila indicada. La continuación se busca por clave en el índice de fecha_hora,
+     * por lo que cualquier página cuesta lo mismo que la primera.
+     *
+     * @param filtro Criterios a aplicar, o null para traer todas
+     * @param ultima Última fila ya mostrada, o null para la primera página
+     * @param limite Cantidad máxima de filas
+     */
+    public List<Asistencia> obtenerPaginaSiguiente(FiltroAsistencia filtro, Asistencia ultima, int limite) {
+        List<Object> parametros = new ArrayList<>();
+        StringBuilder where = condicionesFiltro(filtro, parametros);
+        if (ultima != null) {
+            agregarCondicion(where, "(a.fecha_hora, a.id) < (?, ?)");
+            parametros.add(DateUtils.formatDateTimeForSQLite(ultima.getFechaHora()));
+            parametros.add(ultima.getId());
+        }
+        parametros.add(limite);
+
+        String sql = SELECT_CON_RELACIONES + where +
+                "ORDER BY a.fecha_hora DESC, a.id DESC LIMIT ?";
+        return consultarPagina(sql, parametros, limite);
+    }
+
+    /**
+     * Página de asistencias inmediatamente anterior (más recientes) a la fila indicada,
+     * devuelta también en el orden de la tabla.
+     *
+     * @param filtro Criterios a aplicar, o null para traer todas
+     * @param primera Primera fila ya mostrada
+     * @param limite Cantidad máxima de filas
+     */
+    public List<Asistencia> obtenerPaginaAnterior(FiltroAsistencia filtro, Asistencia primera, int limite) {
+        List<Object> parametros = new ArrayList<>();
+        StringBuilder where = condicionesFiltro(filtro, parametros);
+        agregarCondicion(where, "(a.fecha_hora, a.id) > (?, ?)");
+        parametros.add(DateUtils.formatDateTimeForSQLite(primera.getFechaHora()));
+        parametros.add(primera.getId());
+        parametros.add(limite);
+
+        String sql = SELECT_CON_RELACIONES + where +
+                "ORDER BY a.fecha_hora ASC, a.id ASC LIMIT ?";
+        List<Asistencia> asistencias = consultarPagina(sql, parametros, limite);
+        Collections.reverse(asistencias);
+        return asistencias;
+    }
+
+    /**
+     * Traduce el filtro a condiciones sobre columnas indexadas: el rango de días se
+     * compara como texto contra fecha_hora (sin funciones, para que use el índice) y
+     * los ids por igualdad, que SQLite resuelve con los índices (columna, fecha_hora).
+     * Estado y tipo de registro se evalúan sobre las filas que ya recorre ese índice.
+     */
+    private StringBuilder condicionesFiltro(FiltroAsistencia filtro, List<Object> parametros) {
+        StringBuilder where = new StringBuilder();
+        if (filtro == null) {
+            return where;
+        }
+        if (filtro.getDesde() != null) {
+            agregarCondicion(where, "a.fecha_hora >= ?");
+            parametros.add(DateUtils.formatDateTimeForSQLite(filtro.getDesde().atStartOfDay()));
+        }
+        if (filtro.getHasta() != null) {
+            agregarCondicion(where, "a.fecha_hora < ?");
+            parametros.add(DateUtils.formatDateTimeForSQLite(filtro.getHasta().plusDays(1).atStartOfDay()));
+        }
+        if (filtro.getAsignaturaId() != null) {
+            agregarCondicion(where, "a.asignatura_id = ?");
+            parametros.add(filtro.getAsignaturaId());
+        }
+        if (filtro.getDocenteId() != null) {
+            agregarCondicion(where, "a.docente_id = ?");
+            parametros.add(filtro.getDocenteId());
+        }
+        if (filtro.getEstudianteId() != null) {
+            agregarCondicion(where, "a.estudiante_id = ?");
+            parametros.add(filtro.getEstudianteId());
+        }
+        if (filtro.getEstado() != null && !filtro.getEstado().isBlank()) {
+            agregarCondicion(where, "a.estado = ?");
+            parametros.add(filtro.getEstado());
+        }
+        if (filtro.getTipoRegistro() != null && !filtro.getTipoRegistro().isBlank()) {
+            agregarCondicion(where, "a.tipo_registro = ?");
+            parametros.add(filtro.getTipoRegistro());
+        }
+        return where;
+    }
+
+    private static void agregarCondicion(StringBuilder where, String condicion) {
+        where.append(where.length() == 0 ? "WHERE " : "AND ").append(condicion).append(' ');
+    }
+
+    private List<Asistencia> consultarPagina(String sql, List<Object> parametros, int limite) {
+        List<Asistencia> asistencias = new ArrayList<>(limite);
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < parametros.size(); i++) {
+                stmt.setObject(i + 1, parametros.get(i));
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    asistencias.add(mapResultSetToAsistencia(rs));
+                }
+            }
+        } catch (SQLException e) {
+            // Una página vacía se confundiría con el final de los datos (tabla o exportación truncadas)
+            log.severe("❌ Error al obtener página de asistencias: " + e.getMessage());
+            throw new RuntimeException("Error al obtener página de asistencias: " + e.getMessage(), e);
+        }
+        return asistencias;
+    }
+
     /**
      * Obtiene las asistencias de un estudiante específico dentro de un rango de fechas.
      *
@@ -146,6 +346,75 @@ public class AsistenciaDAO {
         return asistencias;
     }
 
+    /**
+     * Obtiene las asistencias registradas dentro de un rango de fechas (ambos extremos
+     * incluidos). El filtro se resuelve con el índice sobre fecha_hora, así un reporte
+     * de una semana no recorre todo el historial.
+     *
+     * @param fechaInicio Inicio del rango
+     * @param fechaFin Fin del rango
+     * @return Lista de asistencias del rango, de la más reciente a la más antigua
+     */
+    public List<Asistencia> obtenerPorRangoFecha(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        List<Asistencia> asistencias = new ArrayList<>();
+
+        String sql = "SELECT a.*, e.nombre as estudiante_nombre, e.apellido as estudiante_apellido, " +
+                "e.codigo_estudiante, asig.nombre as asignatura_nombre, " +
+                "d.nombre as docente_nombre, d.apellido as docente_apellido " +
+                "FROM asistencias a " +
+                "JOIN estudiantes e ON a.estudiante_id = e.id " +
+                "JOIN asignaturas asig ON a.asignatura_id = asig.id " +
+                "JOIN docentes d ON a.docente_id = d.id " +
+                "WHERE a.fecha_hora BETWEEN ? AND ? " +
+                "ORDER BY a.fecha_hora DESC";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, DateUtils.formatDateTimeForSQLite(fechaInicio));
+            stmt.setString(2, DateUtils.formatDateTimeForSQLite(fechaFin));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    asistencias.add(mapResultSetToAsistencia(rs));
+                }
+            }
+            log.info("📥 " + asistencias.size() + " asistencias entre " + fechaInicio + " y " + fechaFin);
+        } catch (SQLException e) {
+            log.severe("❌ Error al obtener asistencias por rango de fechas: " + e.getMessage());
+        }
+        return asistencias;
+    }
+
+    /**
+     * Cuenta las asistencias de clases (con asignatura) de un rango de días agrupadas
+     * por estado, en una sola consulta sobre el resumen diario.
+     *
+     * @return estado -> cantidad; los estados sin registros no aparecen
+     */
+    public Map<String, Long> contarPorEstado(LocalDate fechaInicio, LocalDate fechaFin) {
+        Map<String, Long> conteos = new HashMap<>();
+        String sql = "SELECT estado, SUM(total) as total FROM resumen_asistencias " +
+                "WHERE dia BETWEEN ? AND ? AND asignatura_id <> 0 " +
+                "GROUP BY estado";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, fechaInicio.toString());
+            stmt.setString(2, fechaFin.toString());
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    conteos.put(rs.getString("estado"), rs.getLong("total"));
+                }
+            }
+        } catch (SQLException e) {
+            log.severe("❌ Error al contar asistencias por estado: " + e.getMessage());
+        }
+        return conteos;
+    }
+
     /**
      * Actualiza un registro de asistencia existente en la base de datos.
      *
@@ -313,15 +582,30 @@ public class AsistenciaDAO {
      * Registra asistencia automáticamente desde QR de evento
      */
     public boolean registrarAsistenciaDesdeQR(Integer estudianteId, Integer eventoId, String metodoRegistro) {
+        try {
+            registrarAsistenciaDesdeQRAsync(estudianteId, eventoId, metodoRegistro).join();
+            log.info("✅ Asistencia registrada desde QR - Estudiante: " + estudianteId + ", Evento: " + eventoId);
+            return true;
+        } catch (CompletionException e) {
+            log.severe("❌ Error al registrar asistencia desde QR: " + e.getCause().getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Variante asíncrona para lectores QR de alto volumen: no bloquea por el fsync
+     * de cada escaneo, solo encola la fila en la cola de escritura agrupada.
+     */
+    public CompletableFuture<Long> registrarAsistenciaDesdeQRAsync(Integer estudianteId, Integer eventoId, String metodoRegistro) {
         String sql = "INSERT INTO asistencias (fecha_hora, estado, observaciones, tipo_registro, " +
                 "estudiante_id, asignatura_id, docente_id, evento_id) " +
                 "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        // La hora se toma al escanear, no al confirmar el lote
+        String fechaHora = DateUtils.formatDateTimeForSQLite(LocalDateTime.now());
 
-            // Usar fecha/hora actual
-            stmt.setString(1, DateUtils.formatDateTimeForSQLite(LocalDateTime.now()));
+        return ColaEscrituraAsistencias.getInstance().encolar(sql, stmt -> {
+            stmt.setString(1, fechaHora);
             stmt.setString(2, "PRESENTE"); // Estado automático
             stmt.setString(3, "Registro automático vía QR"); // Observación
             stmt.setString(4, metodoRegistro); // QR, MANUAL, etc.
@@ -331,38 +615,16 @@ public class AsistenciaDAO {
             stmt.setNull(6, Types.INTEGER); // asignatura_id
             stmt.setNull(7, Types.INTEGER); // docente_id
             stmt.setInt(8, eventoId);
-
-            int affectedRows = stmt.executeUpdate();
-
-            if (affectedRows > 0) {
-                log.info("✅ Asistencia registrada desde QR - Estudiante: " + estudianteId + ", Evento: " + eventoId);
-                return true;
-            }
-        } catch (SQLException e) {
-            log.severe("❌ Error al registrar asistencia desde QR: " + e.getMessage());
-        }
-        return false;
+        });
     }
 
     /**
      * Obtiene el ID de estudiante por código de estudiante
      */
     public Integer obtenerEstudianteIdPorCodigo(String codigoEstudiante) {
-        String sql = "SELECT id FROM estudiantes WHERE codigo_estudiante = ? AND activo = TRUE";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, codigoEstudiante);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return rs.getInt("id");
-            }
-        } catch (SQLException e) {
-            log.severe("❌ Error al obtener ID de estudiante: " + e.getMessage());
-        }
-        return null;
+        return IndiceEstudiantes.getInstance().buscarPorCodigo(codigoEstudiante)
+                .map(Estudiante::getId)
+                .orElse(null);
     }
 
 }
\ No newline at end of file
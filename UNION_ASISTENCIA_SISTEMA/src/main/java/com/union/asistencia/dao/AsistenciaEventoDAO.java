@@ -10,6 +10,8 @@ import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Log
 public class AsistenciaEventoDAO {
@@ -52,22 +54,66 @@ public class AsistenciaEventoDAO {
      * NUEVO MÉTODO: Registra asistencia rápida por DNI/código de estudiante
      */
     public boolean registrarAsistenciaRapida(int estudianteId, int eventoId) {
-        String sql = "INSERT INTO asistencias_eventos (evento_id, estudiante_id, fecha_hora_registro, tipo_registro, estado) " +
-                "VALUES (?, ?, datetime('now'), 'RAPIDO_DNI', 'PRESENTE')";
+        return registrarEntradaEvento(estudianteId, eventoId, "RAPIDO_DNI") == ResultadoRegistro.REGISTRADO;
+    }
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    /**
+     * Registra la entrada de un estudiante a un evento en una sola sentencia atómica.
+     * La restricción única (evento_id, estudiante_id) evita el doble conteo aunque dos
+     * puntos de control escaneen al mismo estudiante a la vez.
+     */
+    public ResultadoRegistro registrarEntradaEvento(int estudianteId, int eventoId, String tipoRegistro) {
+        try {
+            ResultadoRegistro resultado = registrarEntradaEventoAsync(estudianteId, eventoId, tipoRegistro).join();
+            log.info("✅ Entrada a evento " + eventoId + " - Estudiante " + estudianteId + ": " + resultado);
+            return resultado;
+        } catch (CompletionException e) {
+            log.severe("❌ Error registrando entrada a evento: " + e.getCause().getMessage());
+            return ResultadoRegistro.ERROR;
+        }
+    }
 
+    /**
+     * Encola la entrada en la cola de escritura agrupada; el resultado se conoce al
+     * confirmarse el lote.
+     */
+    public CompletableFuture<ResultadoRegistro> registrarEntradaEventoAsync(int estudianteId, int eventoId, String tipoRegistro) {
+        // RETURNING solo devuelve fila si se insertó; en conflicto no se devuelve nada
+        String sql = "INSERT INTO asistencias_eventos (evento_id, estudiante_id, fecha_hora_registro, tipo_registro, estado) " +
+                "VALUES (?, ?, datetime('now'), ?, 'PRESENTE') " +
+                "ON CONFLICT DO NOTHING RETURNING id";
+
+        return ColaEscrituraAsistencias.getInstance().encolarConRetorno(sql, pstmt -> {
             pstmt.setInt(1, eventoId);
             pstmt.setInt(2, estudianteId);
+            pstmt.setString(3, tipoRegistro);
+        }).thenApply(id -> id != null ? ResultadoRegistro.REGISTRADO : ResultadoRegistro.YA_REGISTRADO);
+    }
 
-            int affectedRows = pstmt.executeUpdate();
-            log.info("✅ Asistencia rápida registrada: Estudiante " + estudianteId + " en Evento " + eventoId);
-            return affectedRows > 0;
-
-        } catch (SQLException e) {
-            log.severe("❌ Error registrando asistencia rápida: " + e.getMessage());
-            return false;
+    /**
+     * Marca la asistencia del estudiante en participantes_evento en una sola sentencia:
+     * inserta al participante si no estaba inscrito o marca asistio = 1 si estaba
+     * inscrito sin asistir. Si ya figuraba como asistente no cambia nada.
+     */
+    public ResultadoRegistro marcarAsistenciaParticipante(int estudianteId, int eventoId) {
+        String sql = "INSERT INTO participantes_evento (evento_id, estudiante_id, tipo_participante, asistio, fecha_inscripcion) " +
+                "VALUES (?, ?, 'ESTUDIANTE', 1, datetime('now')) " +
+                "ON CONFLICT (evento_id, estudiante_id) WHERE estudiante_id IS NOT NULL " +
+                "DO UPDATE SET asistio = 1 WHERE asistio = 0 " +
+                "RETURNING id";
+
+        try {
+            Long id = ColaEscrituraAsistencias.getInstance().encolarConRetorno(sql, pstmt -> {
+                pstmt.setInt(1, eventoId);
+                pstmt.setInt(2, estudianteId);
+            }).join();
+
+            ResultadoRegistro resultado = id != null ? ResultadoRegistro.REGISTRADO : ResultadoRegistro.YA_REGISTRADO;
+            log.info("✅ Asistencia de participante: Estudiante " + estudianteId + " en Evento " + eventoId + ": " + resultado);
+            return resultado;
+        } catch (CompletionException e) {
+            log.severe("❌ Error marcando asistencia de participante: " + e.getCause().getMessage());
+            return ResultadoRegistro.ERROR;
         }
     }
 
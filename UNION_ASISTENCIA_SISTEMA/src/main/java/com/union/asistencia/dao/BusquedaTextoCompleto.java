@@ -0,0 +1,39 @@
+package com.union.asistencia.dao;
+
+import java.util.StringJoiner;
+
+/**
+ * Arma las expresiones MATCH para los índices FTS5 de estudiantes, docentes y
+ * asignaturas (ver migración 8 de SchemaMigrator).
+ */
+final class BusquedaTextoCompleto {
+
+    private BusquedaTextoCompleto() {
+    }
+
+    /**
+     * Convierte lo escrito por el usuario en una búsqueda por prefijo de todas sus
+     * palabras: "jos per" → {@code "jos"* "per"*}. Las palabras se separan igual que en
+     * el tokenizador unicode61 (todo lo que no es letra ni dígito), así "EST-001" busca
+     * "est" y "001", y al ir entre comillas ningún carácter se interpreta como operador.
+     *
+     * @return la expresión, o null si el criterio no tiene ninguna palabra
+     */
+    static String expresionPrefijos(String criterio) {
+        if (criterio == null) {
+            return null;
+        }
+        StringJoiner expresion = new StringJoiner(" ");
+        StringBuilder palabra = new StringBuilder();
+        for (int i = 0; i <= criterio.length(); i++) {
+            char c = i < criterio.length() ? criterio.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                palabra.append(c);
+            } else if (palabra.length() > 0) {
+                expresion.add('"' + palabra.toString() + "\"*");
+                palabra.setLength(0);
+            }
+        }
+        return expresion.length() > 0 ? expresion.toString() : null;
+    }
+}
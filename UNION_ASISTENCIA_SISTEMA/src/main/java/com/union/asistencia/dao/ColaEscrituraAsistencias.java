@@ -0,0 +1,276 @@
+package com.union.asistencia.dao;
+
+import lombok.extern.java.Log;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cola de escritura diferida con confirmación agrupada (group commit) para los
+ * INSERT de asistencia. Un único hilo escritor junta los registros pendientes y
+ * los confirma en una sola transacción cuando se llena el lote o vence la
+ * latencia máxima, de modo que cientos de escaneos simultáneos pagan un solo
+ * fsync en lugar de uno por fila.
+ *
+ * Cada llamador recibe un CompletableFuture que se completa con el ID generado
+ * una vez que la transacción del lote se confirmó en disco.
+ */
+@Log
+public final class ColaEscrituraAsistencias {
+
+    // Configurables con -Dasistencia.escritura.lote / .latencia / .capacidad
+    private static final int MAX_LOTE = Integer.getInteger("asistencia.escritura.lote", 200);
+    private static final long MAX_LATENCIA_MS = Long.getLong("asistencia.escritura.latencia", 10L);
+    private static final int CAPACIDAD_COLA = Integer.getInteger("asistencia.escritura.capacidad", 10_000);
+
+    private static ColaEscrituraAsistencias instance;
+
+    /**
+     * Asigna los parámetros de una escritura pendiente sobre la sentencia preparada
+     */
+    @FunctionalInterface
+    public interface Vinculador {
+        void vincular(PreparedStatement stmt) throws SQLException;
+    }
+
+    private final int maxLote;
+    private final long maxLatenciaNanos;
+    private final BlockingQueue<EscrituraPendiente> cola;
+    private final Thread escritor;
+    private volatile boolean activo = true;
+    // El escritor ya no toma más escrituras; lo que llegue a la cola se rechaza
+    private volatile boolean terminado;
+
+    // ==================== MÉTRICAS ====================
+    private final AtomicLong lotesConfirmados = new AtomicLong();
+    private final AtomicLong filasConfirmadas = new AtomicLong();
+    private final AtomicLong filasFallidas = new AtomicLong();
+    private final AtomicLong rechazadas = new AtomicLong();
+
+    private ColaEscrituraAsistencias(int maxLote, long maxLatenciaMs, int capacidadCola) {
+        this.maxLote = maxLote;
+        this.maxLatenciaNanos = TimeUnit.MILLISECONDS.toNanos(maxLatenciaMs);
+        this.cola = new ArrayBlockingQueue<>(capacidadCola);
+        this.escritor = new Thread(this::ejecutar, "asistencia-writer");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+        log.info("✅ Cola de escritura de asistencias iniciada (lote=" + maxLote +
+                ", latencia=" + maxLatenciaMs + "ms, capacidad=" + capacidadCola + ")");
+    }
+
+    public static synchronized ColaEscrituraAsistencias getInstance() {
+        if (instance == null) {
+            instance = new ColaEscrituraAsistencias(MAX_LOTE, MAX_LATENCIA_MS, CAPACIDAD_COLA);
+        }
+        return instance;
+    }
+
+    /**
+     * Detiene la instancia si fue creada, confirmando antes lo que quede en cola.
+     */
+    static synchronized void detenerInstancia() {
+        if (instance != null) {
+            instance.detener();
+            instance = null;
+        }
+    }
+
+    /**
+     * Encola un INSERT. El futuro se completa con el ID generado tras el commit,
+     * o excepcionalmente si la fila falla, el commit falla o la cola está llena.
+     */
+    public CompletableFuture<Long> encolar(String sql, Vinculador vinculador) {
+        return encolar(new EscrituraPendiente(sql, vinculador, false));
+    }
+
+    /**
+     * Encola una sentencia con cláusula RETURNING (p. ej. INSERT ... ON CONFLICT DO
+     * NOTHING RETURNING id). El futuro se completa con la primera columna de la fila
+     * devuelta, o con null si la sentencia no devolvió filas.
+     */
+    public CompletableFuture<Long> encolarConRetorno(String sql, Vinculador vinculador) {
+        return encolar(new EscrituraPendiente(sql, vinculador, true));
+    }
+
+    private CompletableFuture<Long> encolar(EscrituraPendiente escritura) {
+        if (!activo) {
+            escritura.futuro.completeExceptionally(
+                    new RejectedExecutionException("La cola de escritura está detenida"));
+        } else if (!cola.offer(escritura)) {
+            rechazadas.incrementAndGet();
+            escritura.futuro.completeExceptionally(
+                    new RejectedExecutionException("Cola de escritura llena (" + cola.size() + " pendientes)"));
+        } else if (terminado) {
+            // Se detuvo entre la comprobación de activo y el offer: el escritor ya no la verá
+            rechazarPendientes();
+        }
+        return escritura.futuro;
+    }
+
+    public int getPendientes() { return cola.size(); }
+    public long getLotesConfirmados() { return lotesConfirmados.get(); }
+    public long getFilasConfirmadas() { return filasConfirmadas.get(); }
+    public long getFilasFallidas() { return filasFallidas.get(); }
+    public long getRechazadas() { return rechazadas.get(); }
+
+    private void detener() {
+        activo = false;
+        try {
+            escritor.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (escritor.isAlive()) {
+            log.warning("⚠️ El escritor de asistencias no terminó a tiempo, se rechazan " +
+                    cola.size() + " escrituras pendientes");
+            terminado = true;
+            rechazarPendientes();
+        }
+        log.info("🛑 Cola de escritura detenida - lotes: " + lotesConfirmados.get() +
+                ", filas: " + filasConfirmadas.get());
+    }
+
+    // ==================== HILO ESCRITOR ====================
+
+    private void ejecutar() {
+        List<EscrituraPendiente> lote = new ArrayList<>(maxLote);
+        while (activo || !cola.isEmpty()) {
+            try {
+                EscrituraPendiente primera = cola.poll(200, TimeUnit.MILLISECONDS);
+                if (primera == null) {
+                    continue;
+                }
+                lote.add(primera);
+                completarLote(lote, System.nanoTime() + maxLatenciaNanos);
+                confirmarLote(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.severe("❌ Error inesperado en el escritor de asistencias: " + e.getMessage());
+                fallarPendientes(lote, e);
+            } finally {
+                lote.clear();
+            }
+        }
+        terminado = true;
+        rechazarPendientes();
+    }
+
+    /**
+     * Sigue tomando escrituras hasta llenar el lote o alcanzar el límite de latencia.
+     */
+    private void completarLote(List<EscrituraPendiente> lote, long limiteNanos) throws InterruptedException {
+        while (lote.size() < maxLote) {
+            cola.drainTo(lote, maxLote - lote.size());
+            if (lote.size() >= maxLote) {
+                return;
+            }
+            long restante = limiteNanos - System.nanoTime();
+            if (restante <= 0) {
+                return;
+            }
+            EscrituraPendiente siguiente = cola.poll(restante, TimeUnit.NANOSECONDS);
+            if (siguiente == null) {
+                return;
+            }
+            lote.add(siguiente);
+        }
+    }
+
+    private void confirmarLote(List<EscrituraPendiente> lote) {
+        List<EscrituraPendiente> exitosas = new ArrayList<>(lote.size());
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                for (EscrituraPendiente escritura : lote) {
+                    // Un error de una fila (p. ej. restricción) solo revierte esa sentencia en SQLite
+                    try {
+                        escritura.idGenerado = ejecutarEscritura(conn, escritura);
+                        exitosas.add(escritura);
+                    } catch (SQLException e) {
+                        filasFallidas.incrementAndGet();
+                        escritura.futuro.completeExceptionally(e);
+                    }
+                }
+                conn.commit();
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            log.severe("❌ Error al confirmar lote de " + lote.size() + " asistencias: " + e.getMessage());
+            filasFallidas.addAndGet(exitosas.size());
+            fallarPendientes(lote, e);
+            return;
+        }
+
+        lotesConfirmados.incrementAndGet();
+        filasConfirmadas.addAndGet(exitosas.size());
+        for (EscrituraPendiente escritura : exitosas) {
+            escritura.futuro.complete(escritura.idGenerado);
+        }
+    }
+
+    private Long ejecutarEscritura(Connection conn, EscrituraPendiente escritura) throws SQLException {
+        if (escritura.conRetorno) {
+            try (PreparedStatement stmt = conn.prepareStatement(escritura.sql)) {
+                escritura.vinculador.vincular(stmt);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? rs.getLong(1) : null;
+                }
+            }
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(escritura.sql, Statement.RETURN_GENERATED_KEYS)) {
+            escritura.vinculador.vincular(stmt);
+            stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                return keys.next() ? keys.getLong(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Vacía la cola fallando cada escritura con RejectedExecutionException, para que
+     * ningún llamador quede esperando un futuro que el escritor ya no completará.
+     */
+    private void rechazarPendientes() {
+        List<EscrituraPendiente> pendientes = new ArrayList<>();
+        cola.drainTo(pendientes);
+        if (!pendientes.isEmpty()) {
+            rechazadas.addAndGet(pendientes.size());
+            fallarPendientes(pendientes, new RejectedExecutionException("La cola de escritura está detenida"));
+        }
+    }
+
+    private void fallarPendientes(List<EscrituraPendiente> lote, Throwable causa) {
+        for (EscrituraPendiente escritura : lote) {
+            escritura.futuro.completeExceptionally(causa);
+        }
+    }
+
+    private static final class EscrituraPendiente {
+        private final String sql;
+        private final Vinculador vinculador;
+        private final boolean conRetorno;
+        private final CompletableFuture<Long> futuro = new CompletableFuture<>();
+        private Long idGenerado;
+
+        private EscrituraPendiente(String sql, Vinculador vinculador, boolean conRetorno) {
+            this.sql = sql;
+            this.vinculador = vinculador;
+            this.conRetorno = conRetorno;
+        }
+    }
+}
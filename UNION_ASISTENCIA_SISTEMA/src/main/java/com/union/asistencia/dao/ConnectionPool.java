@@ -0,0 +1,297 @@
+package com.union.asistencia.dao;
+
+import lombok.extern.java.Log;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool acotado de conexiones SQLite de larga duración.
+ * Cada conexión física se crea una sola vez con los PRAGMA ya aplicados y se
+ * entrega envuelta en un proxy: llamar a close() la devuelve al pool en lugar de
+ * cerrar el archivo, así los DAO siguen usando try-with-resources sin cambios.
+ * Cada conexión física conserva además su propia {@link StatementCache}.
+ */
+@Log
+final class ConnectionPool {
+
+    // ==================== PRAGMAS APLICADOS A CADA CONEXIÓN NUEVA ====================
+    private static final String[] PRAGMAS = {
+            "PRAGMA journal_mode = WAL",
+            "PRAGMA synchronous = NORMAL",
+            "PRAGMA busy_timeout = 5000",
+            "PRAGMA foreign_keys = ON",
+            "PRAGMA mmap_size = 268435456",
+            "PRAGMA temp_store = MEMORY"
+    };
+
+    private final String url;
+    private final int tamanioMaximo;
+    private final long timeoutMs;
+    private final int tamanioCacheSentencias;
+
+    /** Conexiones físicas libres; se usa como pila para reutilizar la más reciente (caché caliente) */
+    private final LinkedBlockingDeque<ConexionFisica> libres = new LinkedBlockingDeque<>();
+    private final Semaphore permisos;
+
+    // ==================== MÉTRICAS ====================
+    private final AtomicInteger activas = new AtomicInteger();
+    private final AtomicInteger creadas = new AtomicInteger();
+    private final AtomicLong prestamos = new AtomicLong();
+    private final AtomicLong esperaTotalNanos = new AtomicLong();
+    private final AtomicLong esperaMaximaNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    private volatile boolean cerrado;
+
+    ConnectionPool(String url, int tamanioMaximo, long timeoutMs, int tamanioCacheSentencias) {
+        this.url = url;
+        this.tamanioMaximo = tamanioMaximo;
+        this.timeoutMs = timeoutMs;
+        this.tamanioCacheSentencias = tamanioCacheSentencias;
+        this.permisos = new Semaphore(tamanioMaximo, true);
+    }
+
+    /**
+     * Obtiene una conexión del pool, esperando como máximo {@code timeoutMs}
+     * si todas están ocupadas.
+     */
+    Connection obtener() throws SQLException {
+        if (cerrado) {
+            throw new SQLException("El pool de conexiones está cerrado");
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            if (!permisos.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLException("Tiempo de espera agotado obteniendo conexión del pool (" +
+                        tamanioMaximo + " conexiones ocupadas)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido esperando conexión del pool", e);
+        }
+        registrarEspera(System.nanoTime() - inicio);
+
+        try {
+            ConexionFisica fisica = libres.pollFirst();
+            while (fisica != null && fisica.conexion.isClosed()) {
+                creadas.decrementAndGet();
+                fisica = libres.pollFirst();
+            }
+            if (fisica == null) {
+                fisica = crearConexion();
+            }
+            activas.incrementAndGet();
+            prestamos.incrementAndGet();
+            return envolver(fisica);
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Devuelve una conexión física al pool dejándola en modo autocommit.
+     * Si no se puede restaurar se descarta.
+     */
+    private void devolver(ConexionFisica fisica) {
+        try {
+            fisica.cache.liberarTodas();
+            Connection conexion = fisica.conexion;
+            if (!conexion.getAutoCommit()) {
+                conexion.rollback();
+                conexion.setAutoCommit(true);
+            }
+            if (cerrado) {
+                cerrarFisica(fisica);
+            } else {
+                libres.offerFirst(fisica);
+            }
+        } catch (SQLException e) {
+            log.warning("⚠️ Conexión descartada al devolverla al pool: " + e.getMessage());
+            cerrarFisica(fisica);
+        } finally {
+            activas.decrementAndGet();
+            permisos.release();
+        }
+    }
+
+    /**
+     * Cierra todas las conexiones libres. Las prestadas se cierran al devolverse.
+     */
+    void cerrar() {
+        cerrado = true;
+        ConexionFisica fisica;
+        while ((fisica = libres.pollFirst()) != null) {
+            cerrarFisica(fisica);
+        }
+        log.info("🔌 Pool de conexiones cerrado");
+    }
+
+    DatabaseConnection.EstadisticasPool estadisticas() {
+        long totalPrestamos = prestamos.get();
+        // Lectura aproximada: las cachés de conexiones prestadas pueden estar cambiando
+        long aciertos = 0;
+        long fallos = 0;
+        for (ConexionFisica fisica : libres) {
+            aciertos += fisica.cache.getAciertos();
+            fallos += fisica.cache.getFallos();
+        }
+        return new DatabaseConnection.EstadisticasPool(
+                tamanioMaximo,
+                activas.get(),
+                libres.size(),
+                creadas.get(),
+                totalPrestamos,
+                timeouts.get(),
+                totalPrestamos > 0 ? esperaTotalNanos.get() / totalPrestamos / 1_000 : 0,
+                esperaMaximaNanos.get() / 1_000,
+                aciertos,
+                fallos
+        );
+    }
+
+    private ConexionFisica crearConexion() throws SQLException {
+        Connection conexion = DriverManager.getConnection(url);
+        try (Statement stmt = conexion.createStatement()) {
+            for (String pragma : PRAGMAS) {
+                stmt.execute(pragma);
+            }
+        } catch (SQLException e) {
+            conexion.close();
+            throw e;
+        }
+        int total = creadas.incrementAndGet();
+        log.info("🔌 Nueva conexión SQLite creada (" + total + "/" + tamanioMaximo + ")");
+        return new ConexionFisica(conexion, new StatementCache(conexion, tamanioCacheSentencias));
+    }
+
+    private void registrarEspera(long nanos) {
+        esperaTotalNanos.addAndGet(nanos);
+        esperaMaximaNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private void cerrarFisica(ConexionFisica fisica) {
+        creadas.decrementAndGet();
+        fisica.cache.cerrarTodas();
+        try {
+            fisica.conexion.close();
+        } catch (SQLException e) {
+            log.warning("⚠️ Error al cerrar conexión física: " + e.getMessage());
+        }
+    }
+
+    private Connection envolver(ConexionFisica fisica) {
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConexionPrestada(fisica));
+    }
+
+    /**
+     * Conexión física junto con su caché de sentencias preparadas
+     */
+    private static final class ConexionFisica {
+        private final Connection conexion;
+        private final StatementCache cache;
+
+        private ConexionFisica(Connection conexion, StatementCache cache) {
+            this.conexion = conexion;
+            this.cache = cache;
+        }
+    }
+
+    /**
+     * Intercepta close()/isClosed() de la conexión prestada y sirve
+     * prepareStatement(sql) desde la caché; el resto de llamadas se delegan a la
+     * conexión física.
+     */
+    private final class ConexionPrestada implements InvocationHandler {
+        private final ConexionFisica fisica;
+        /** Sentencias no cacheadas abiertas durante el préstamo; se cierran al devolver */
+        private final List<Statement> noCacheadas = new ArrayList<>();
+        private boolean devuelta;
+
+        private ConexionPrestada(ConexionFisica fisica) {
+            this.fisica = fisica;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!devuelta) {
+                        devuelta = true;
+                        cerrarNoCacheadas();
+                        devolver(fisica);
+                    }
+                    return null;
+                case "isClosed":
+                    return devuelta || fisica.conexion.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConexionPrestada[" + fisica.conexion + "]";
+                default:
+                    break;
+            }
+
+            if (devuelta) {
+                throw new SQLException("La conexión ya fue devuelta al pool");
+            }
+
+            if ("prepareStatement".equals(method.getName()) && esCacheable(method)) {
+                int clavesGeneradas = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                Statement cacheada = fisica.cache.preparar((String) args[0], clavesGeneradas);
+                if (cacheada != null) {
+                    return cacheada;
+                }
+            }
+
+            Object resultado;
+            try {
+                resultado = method.invoke(fisica.conexion, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (resultado instanceof Statement) {
+                noCacheadas.add((Statement) resultado);
+            }
+            return resultado;
+        }
+
+        /** prepareStatement(String) y prepareStatement(String, int autoGeneratedKeys) */
+        private boolean esCacheable(Method method) {
+            Class<?>[] tipos = method.getParameterTypes();
+            return tipos.length == 1 || (tipos.length == 2 && tipos[1] == int.class);
+        }
+
+        private void cerrarNoCacheadas() {
+            for (Statement stmt : noCacheadas) {
+                try {
+                    stmt.close();
+                } catch (SQLException e) {
+                    log.warning("⚠️ Error al cerrar sentencia: " + e.getMessage());
+                }
+            }
+            noCacheadas.clear();
+        }
+    }
+}
@@ -189,19 +189,25 @@ public class DocenteDAO {
         }
     }
 
+    /**
+     * Busca por prefijo de palabras en nombre, apellido, código y DNI usando el índice
+     * FTS5 (sin distinguir tildes ni mayúsculas), ordenado por relevancia.
+     */
     public List<Docente> buscarPorNombre(String criterio) {
+        String expresion = BusquedaTextoCompleto.expresionPrefijos(criterio);
+        if (expresion == null) {
+            return obtenerTodos();
+        }
+
         List<Docente> docentes = new ArrayList<>();
-        String sql = "SELECT * FROM docentes WHERE activo = TRUE AND " +
-                "(nombre LIKE ? OR apellido LIKE ? OR codigo_docente LIKE ?) " +
-                "ORDER BY apellido, nombre";
+        String sql = "SELECT d.* FROM docentes_fts f JOIN docentes d ON d.id = f.rowid " +
+                "WHERE docentes_fts MATCH ? AND d.activo = TRUE " +
+                "ORDER BY f.rank, d.apellido, d.nombre";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            String likeCriterio = "%" + criterio + "%";
-            stmt.setString(1, likeCriterio);
-            stmt.setString(2, likeCriterio);
-            stmt.setString(3, likeCriterio);
+            stmt.setString(1, expresion);
 
             ResultSet rs = stmt.executeQuery();
 
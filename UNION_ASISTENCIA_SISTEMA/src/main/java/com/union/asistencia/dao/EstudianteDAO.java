@@ -54,6 +54,7 @@ public class EstudianteDAO {
                         estudiante.setId(generatedKeys.getInt(1));
                     }
                 }
+                refrescarIndice(conn, estudiante.getId());
                 log.info("✅ ESTUDIANTE GUARDADO EXITOSAMENTE: " + estudiante.getNombre() + " " + estudiante.getApellido());
                 return true;
             } else {
@@ -123,6 +124,29 @@ public class EstudianteDAO {
         return false;
     }
 
+    /**
+     * Indica si el estudiante con ese DNI tiene asistencias, inscripciones o entradas a
+     * eventos. Con foreign_keys activo no se puede borrar mientras existan esas filas.
+     */
+    public boolean tieneRegistrosAsociados(String dni) {
+        String sql = "SELECT EXISTS (SELECT 1 FROM asistencias WHERE estudiante_id = e.id) " +
+                "OR EXISTS (SELECT 1 FROM participantes_evento WHERE estudiante_id = e.id) " +
+                "OR EXISTS (SELECT 1 FROM asistencias_eventos WHERE estudiante_id = e.id) " +
+                "FROM estudiantes e WHERE e.dni = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, dni);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        } catch (SQLException e) {
+            log.severe("Error al verificar registros del estudiante: " + e.getMessage());
+        }
+        return false;
+    }
+
     // ✅ MÉTODO PARA ELIMINAR ESTUDIANTE POR DNI (para limpiar el duplicado)
     public boolean eliminarEstudiantePorDni(String dni) {
         String sql = "DELETE FROM estudiantes WHERE dni = ?";
@@ -134,6 +158,7 @@ public class EstudianteDAO {
             int affectedRows = stmt.executeUpdate();
 
             if (affectedRows > 0) {
+                IndiceEstudiantes.getInstance().quitarPorDni(dni);
                 log.info("✅ ESTUDIANTE ELIMINADO: DNI " + dni);
                 return true;
             } else {
@@ -142,6 +167,9 @@ public class EstudianteDAO {
             }
         } catch (SQLException e) {
             log.severe("❌ Error al eliminar estudiante: " + e.getMessage());
+            if (e.getMessage() != null && e.getMessage().contains("FOREIGN KEY constraint failed")) {
+                log.severe("🚫 El estudiante con DNI " + dni + " tiene asistencias o participaciones registradas");
+            }
             return false;
         }
     }
@@ -184,59 +212,16 @@ public class EstudianteDAO {
     }
 
     public Optional<Estudiante> obtenerPorId(Integer id) {
-        String sql = "SELECT * FROM estudiantes WHERE id = ? AND activo = TRUE";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, id);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return Optional.of(mapResultSetToEstudiante(rs));
-            }
-        } catch (SQLException e) {
-            log.severe("Error al obtener estudiante por ID: " + e.getMessage());
-        }
-        return Optional.empty();
+        // Resuelto desde el índice en memoria: sin SQL en los flujos de registro
+        return IndiceEstudiantes.getInstance().buscarPorId(id);
     }
 
     public Optional<Estudiante> obtenerPorCodigo(String codigoEstudiante) {
-        String sql = "SELECT * FROM estudiantes WHERE codigo_estudiante = ? AND activo = TRUE";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, codigoEstudiante);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return Optional.of(mapResultSetToEstudiante(rs));
-            }
-        } catch (SQLException e) {
-            log.severe("Error al obtener estudiante por código: " + e.getMessage());
-        }
-        return Optional.empty();
+        return IndiceEstudiantes.getInstance().buscarPorCodigo(codigoEstudiante);
     }
 
     public Estudiante buscarPorDniOCodigo(String dniCodigo) {
-        String sql = "SELECT * FROM estudiantes WHERE (dni = ? OR codigo_estudiante = ?) AND activo = TRUE";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, dniCodigo);
-            pstmt.setString(2, dniCodigo);
-
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                return mapResultSetToEstudiante(rs);
-            }
-        } catch (SQLException e) {
-            log.severe("Error al buscar estudiante por DNI/código: " + e.getMessage());
-        }
-        return null;
+        return IndiceEstudiantes.getInstance().buscarPorDniOCodigo(dniCodigo).orElse(null);
     }
 
     public boolean actualizar(Estudiante estudiante) {
@@ -260,7 +245,11 @@ public class EstudianteDAO {
             stmt.setString(11, estudiante.getDireccion());
             stmt.setInt(12, estudiante.getId());
 
-            return stmt.executeUpdate() > 0;
+            boolean exito = stmt.executeUpdate() > 0;
+            if (exito) {
+                refrescarIndice(conn, estudiante.getId());
+            }
+            return exito;
         } catch (SQLException e) {
             log.severe("Error al actualizar estudiante: " + e.getMessage());
             e.printStackTrace();
@@ -275,26 +264,37 @@ public class EstudianteDAO {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
+            boolean exito = stmt.executeUpdate() > 0;
+            if (exito) {
+                IndiceEstudiantes.getInstance().quitar(id);
+            }
+            return exito;
         } catch (SQLException e) {
             log.severe("Error al eliminar estudiante: " + e.getMessage());
             return false;
         }
     }
 
+    /**
+     * Busca por prefijo de palabras en nombre, apellido, código y DNI usando el índice
+     * FTS5 (sin distinguir tildes ni mayúsculas), de la coincidencia más relevante a la
+     * menos relevante.
+     */
     public List<Estudiante> buscarPorNombre(String criterio) {
+        String expresion = BusquedaTextoCompleto.expresionPrefijos(criterio);
+        if (expresion == null) {
+            return obtenerTodos();
+        }
+
         List<Estudiante> estudiantes = new ArrayList<>();
-        String sql = "SELECT * FROM estudiantes WHERE activo = TRUE AND " +
-                "(nombre LIKE ? OR apellido LIKE ? OR codigo_estudiante LIKE ?) " +
-                "ORDER BY apellido, nombre";
+        String sql = "SELECT e.* FROM estudiantes_fts f JOIN estudiantes e ON e.id = f.rowid " +
+                "WHERE estudiantes_fts MATCH ? AND e.activo = TRUE " +
+                "ORDER BY f.rank, e.apellido, e.nombre";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            String likeCriterio = "%" + criterio + "%";
-            stmt.setString(1, likeCriterio);
-            stmt.setString(2, likeCriterio);
-            stmt.setString(3, likeCriterio);
+            stmt.setString(1, expresion);
 
             ResultSet rs = stmt.executeQuery();
 
@@ -307,6 +307,25 @@ public class EstudianteDAO {
         return estudiantes;
     }
 
+    /**
+     * Vuelve a leer la fila escrita y la publica en el índice en memoria, para que
+     * el índice nunca comparta el objeto que el llamador puede seguir modificando.
+     */
+    private void refrescarIndice(Connection conn, Integer id) throws SQLException {
+        if (id == null) {
+            return;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT * FROM estudiantes WHERE id = ?")) {
+            stmt.setInt(1, id);
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                IndiceEstudiantes.getInstance().registrar(mapResultSetToEstudiante(rs));
+            } else {
+                IndiceEstudiantes.getInstance().quitar(id);
+            }
+        }
+    }
+
     private Estudiante mapResultSetToEstudiante(ResultSet rs) throws SQLException {
         return Estudiante.builder()
                 .id(rs.getInt("id"))
@@ -9,42 +9,81 @@ import lombok.extern.java.Log;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Log
 public class EventoDAO {
 
+    /**
+     * Caché compartida código de evento → evento. Se reconstruye completa en la
+     * primera búsqueda tras una invalidación (guardar/actualizar/eliminar), de modo
+     * que resolver un código escaneado es una sola búsqueda en un HashMap.
+     */
+    private static volatile Map<String, Evento> cacheCodigos;
+    /** Se incrementa en cada invalidación para no publicar una carga que quedó obsoleta */
+    private static final AtomicLong generacionCodigos = new AtomicLong();
+
     public boolean guardar(Evento evento) {
         String sql = "INSERT INTO eventos (nombre, tipo, descripcion, fecha_hora_inicio, fecha_hora_fin, " +
-                "lugar, responsable, capacidad_maxima, requiere_inscripcion) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+                "lugar, responsable, capacidad_maxima, requiere_inscripcion, codigo_evento) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setString(1, evento.getNombre());
-            stmt.setString(2, evento.getTipo());
-            stmt.setString(3, evento.getDescripcion());
-
-            // ✅ CORRECCIÓN: Formato ISO para SQLite
-            stmt.setString(4, evento.getFechaHoraInicio().toString().replace('T', ' '));
-            stmt.setString(5, evento.getFechaHoraFin().toString().replace('T', ' '));
-
-            stmt.setString(6, evento.getLugar());
-            stmt.setString(7, evento.getResponsable());
-            stmt.setObject(8, evento.getCapacidadMaxima(), Types.INTEGER);
-            stmt.setBoolean(9, evento.getRequiereInscripcion());
+        if (!codigoAdmitido(evento.getCodigoEvento())) {
+            return false;
+        }
 
-            int affectedRows = stmt.executeUpdate();
+        // El INSERT y la asignación del código por defecto se confirman juntos: si el
+        // código no se puede asignar no queda un evento sin código en la base
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+                stmt.setString(1, evento.getNombre());
+                stmt.setString(2, evento.getTipo());
+                stmt.setString(3, evento.getDescripcion());
+
+                // ✅ CORRECCIÓN: Formato ISO para SQLite
+                stmt.setString(4, evento.getFechaHoraInicio().toString().replace('T', ' '));
+                stmt.setString(5, evento.getFechaHoraFin().toString().replace('T', ' '));
+
+                stmt.setString(6, evento.getLugar());
+                stmt.setString(7, evento.getResponsable());
+                stmt.setObject(8, evento.getCapacidadMaxima(), Types.INTEGER);
+                stmt.setBoolean(9, evento.getRequiereInscripcion());
+                stmt.setString(10, esCodigoVacio(evento.getCodigoEvento()) ? null : evento.getCodigoEvento().trim());
+
+                int affectedRows = stmt.executeUpdate();
+                if (affectedRows == 0) {
+                    conn.rollback();
+                    return false;
+                }
 
-            if (affectedRows > 0) {
+                int id;
                 try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        evento.setId(generatedKeys.getInt(1));
+                    if (!generatedKeys.next()) {
+                        throw new SQLException("No se obtuvo el ID del evento insertado");
                     }
+                    id = generatedKeys.getInt(1);
                 }
+                String codigo = esCodigoVacio(evento.getCodigoEvento())
+                        ? asignarCodigoPorDefecto(conn, id)
+                        : evento.getCodigoEvento().trim();
+                conn.commit();
+
+                evento.setId(id);
+                evento.setCodigoEvento(codigo);
+                invalidarCacheCodigos();
                 return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
         } catch (SQLException e) {
             log.severe("Error al guardar evento: " + e.getMessage());
@@ -111,7 +150,11 @@ public class EventoDAO {
     public boolean actualizar(Evento evento) {
         String sql = "UPDATE eventos SET nombre = ?, tipo = ?, descripcion = ?, fecha_hora_inicio = ?, " +
                 "fecha_hora_fin = ?, lugar = ?, responsable = ?, capacidad_maxima = ?, " +
-                "requiere_inscripcion = ? WHERE id = ?";
+                "requiere_inscripcion = ?, codigo_evento = COALESCE(?, codigo_evento) WHERE id = ?";
+
+        if (!codigoAdmitido(evento.getCodigoEvento())) {
+            return false;
+        }
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -126,9 +169,12 @@ public class EventoDAO {
             stmt.setString(7, evento.getResponsable());
             stmt.setObject(8, evento.getCapacidadMaxima(), Types.INTEGER);
             stmt.setBoolean(9, evento.getRequiereInscripcion());
-            stmt.setInt(10, evento.getId());
+            stmt.setString(10, esCodigoVacio(evento.getCodigoEvento()) ? null : evento.getCodigoEvento().trim());
+            stmt.setInt(11, evento.getId());
 
-            return stmt.executeUpdate() > 0;
+            boolean exito = stmt.executeUpdate() > 0;
+            invalidarCacheCodigos();
+            return exito;
         } catch (SQLException e) {
             log.severe("Error al actualizar evento: " + e.getMessage());
             e.printStackTrace();
@@ -136,21 +182,168 @@ public class EventoDAO {
         }
     }
 
+    /**
+     * Elimina el evento junto con sus inscripciones y entradas registradas, en una sola
+     * transacción (con foreign_keys activo el DELETE fallaría si quedaran filas que lo
+     * referencian). Las asistencias de clase vinculadas al evento se conservan, solo se
+     * desvinculan.
+     */
     public boolean eliminar(Integer id) {
         // ⛔ CAMBIAR: DELETE real en lugar de marcar como inactivo
+        String[] dependientes = {
+                "DELETE FROM asistencias_eventos WHERE evento_id = ?",
+                "DELETE FROM participantes_evento WHERE evento_id = ?",
+                "UPDATE asistencias SET evento_id = NULL WHERE evento_id = ?"
+        };
         String sql = "DELETE FROM eventos WHERE id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                for (String dependiente : dependientes) {
+                    try (PreparedStatement stmt = conn.prepareStatement(dependiente)) {
+                        stmt.setInt(1, id);
+                        stmt.executeUpdate();
+                    }
+                }
+                boolean exito;
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, id);
+                    exito = stmt.executeUpdate() > 0;
+                }
+                conn.commit();
+                invalidarCacheCodigos();
+                return exito;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         } catch (SQLException e) {
             log.severe("Error al eliminar evento: " + e.getMessage());
             return false;
         }
     }
 
+    // ==================== REGISTRO DE CÓDIGOS DE EVENTO ====================
+
+    /**
+     * Resuelve el código impreso en los QR de asistencia (p. ej. "IG234") al evento.
+     */
+    public Optional<Evento> obtenerPorCodigo(String codigoEvento) {
+        if (esCodigoVacio(codigoEvento)) {
+            return Optional.empty();
+        }
+        Map<String, Evento> cache = cacheCodigos;
+        if (cache == null) {
+            cache = cargarCacheCodigos();
+        }
+        return Optional.ofNullable(cache.get(codigoEvento.trim()));
+    }
+
+    /**
+     * Descarta la caché de códigos; la siguiente búsqueda la reconstruye.
+     */
+    public static synchronized void invalidarCacheCodigos() {
+        generacionCodigos.incrementAndGet();
+        cacheCodigos = null;
+    }
+
+    private Map<String, Evento> cargarCacheCodigos() {
+        long generacion = generacionCodigos.get();
+        Map<String, Evento> cache = new HashMap<>();
+        String sql = "SELECT * FROM eventos WHERE codigo_evento IS NOT NULL";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                Evento evento = mapResultSetToEvento(rs);
+                cache.put(evento.getCodigoEvento(), evento);
+            }
+            log.info("📇 Caché de códigos de evento cargada: " + cache.size() + " eventos");
+        } catch (SQLException e) {
+            log.severe("❌ Error al cargar códigos de evento: " + e.getMessage());
+            // No se publica una caché incompleta; se reintenta en la siguiente búsqueda
+            return Collections.unmodifiableMap(cache);
+        }
+
+        Map<String, Evento> publicada = Collections.unmodifiableMap(cache);
+        synchronized (EventoDAO.class) {
+            if (generacionCodigos.get() == generacion) {
+                cacheCodigos = publicada;
+            }
+        }
+        return publicada;
+    }
+
+    /**
+     * Asigna el código EVTnnnn (a partir del ID) a un evento guardado sin código. Si ese
+     * código ya fue escrito a mano para otro evento se prueba con una letra (EVTnnnnB,
+     * EVTnnnnC...), de modo que nunca choca con el índice único. El sufijo va sin
+     * separador porque el código viaja dentro del QR de asistencia, donde '-' separa campos.
+     *
+     * @return el código asignado
+     */
+    private String asignarCodigoPorDefecto(Connection conn, int id) throws SQLException {
+        String base = String.format("EVT%04d", id);
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE eventos SET codigo_evento = ? WHERE id = ? " +
+                        "AND NOT EXISTS (SELECT 1 FROM eventos WHERE codigo_evento = ?)")) {
+            for (int intento = 1; ; intento++) {
+                String codigo = base + sufijoCodigo(intento);
+                stmt.setString(1, codigo);
+                stmt.setInt(2, id);
+                stmt.setString(3, codigo);
+                if (stmt.executeUpdate() > 0) {
+                    return codigo;
+                }
+            }
+        }
+    }
+
+    /**
+     * "" para el primer intento, luego B..Z y, agotadas las letras, Z27, Z28...
+     */
+    private static String sufijoCodigo(int intento) {
+        if (intento == 1) {
+            return "";
+        }
+        return intento <= 26 ? String.valueOf((char) ('A' + intento - 1)) : "Z" + intento;
+    }
+
+    private static boolean esCodigoVacio(String codigo) {
+        return codigo == null || codigo.trim().isEmpty();
+    }
+
+    /**
+     * Un código escrito a mano no puede llevar '-' ni '|' (separadores de campo de los
+     * QR, ver ParserQR) ni espacios: el QR generado para el evento no se podría leer.
+     */
+    private static boolean esCodigoValido(String codigo) {
+        if (esCodigoVacio(codigo)) {
+            return true;
+        }
+        String recortado = codigo.trim();
+        for (int i = 0; i < recortado.length(); i++) {
+            char c = recortado.charAt(i);
+            if (c == '-' || c == '|' || Character.isWhitespace(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean codigoAdmitido(String codigo) {
+        if (esCodigoValido(codigo)) {
+            return true;
+        }
+        log.warning("⚠️ Código de evento rechazado (no puede contener '-', '|' ni espacios): " + codigo);
+        return false;
+    }
+
     // MÉTODOS PARA PARTICIPANTES DE EVENTOS
 
     public boolean inscribirParticipante(ParticipanteEvento participante) {
@@ -230,6 +423,50 @@ public class EventoDAO {
         return participantes;
     }
 
+    /**
+     * Página de participantes de un evento ordenada por id (paginación por clave: se
+     * continúa desde el último id recibido). Incluye los códigos de estudiante/docente
+     * para imprimir gafetes sin cargar a todos los participantes en memoria.
+     *
+     * A diferencia del resto de consultas no oculta los errores: para quien recorre las
+     * páginas una lista vacía significa fin de datos, y un error tomado como tal dejaría
+     * el resultado truncado sin avisar.
+     */
+    public List<ParticipanteEvento> obtenerParticipantesPagina(Integer eventoId, int despuesDeId, int limite)
+            throws SQLException {
+        List<ParticipanteEvento> participantes = new ArrayList<>(limite);
+        String sql = "SELECT p.*, e.nombre as estudiante_nombre, e.apellido as estudiante_apellido, " +
+                "e.codigo_estudiante as estudiante_codigo, " +
+                "d.nombre as docente_nombre, d.apellido as docente_apellido, " +
+                "d.codigo_docente as docente_codigo " +
+                "FROM participantes_evento p " +
+                "LEFT JOIN estudiantes e ON p.estudiante_id = e.id " +
+                "LEFT JOIN docentes d ON p.docente_id = d.id " +
+                "WHERE p.evento_id = ? AND p.id > ? " +
+                "ORDER BY p.id LIMIT ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, eventoId);
+            stmt.setInt(2, despuesDeId);
+            stmt.setInt(3, limite);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ParticipanteEvento participante = mapResultSetToParticipante(rs);
+                    if (participante.getEstudiante() != null) {
+                        participante.getEstudiante().setCodigoEstudiante(rs.getString("estudiante_codigo"));
+                    }
+                    if (participante.getDocente() != null) {
+                        participante.getDocente().setCodigoDocente(rs.getString("docente_codigo"));
+                    }
+                    participantes.add(participante);
+                }
+            }
+        }
+        return participantes;
+    }
+
     public int contarParticipantesPorEvento(Integer eventoId) {
         String sql = "SELECT COUNT(*) FROM participantes_evento WHERE evento_id = ?";
 
@@ -275,6 +512,7 @@ public class EventoDAO {
 
         return Evento.builder()
                 .id(rs.getInt("id"))
+                .codigoEvento(rs.getString("codigo_evento"))
                 .nombre(rs.getString("nombre"))
                 .tipo(rs.getString("tipo"))
                 .descripcion(rs.getString("descripcion"))
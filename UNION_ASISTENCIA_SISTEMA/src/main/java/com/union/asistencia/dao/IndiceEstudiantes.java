@@ -0,0 +1,138 @@
+package com.union.asistencia.dao;
+
+import com.union.asistencia.model.Estudiante;
+import lombok.extern.java.Log;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice en memoria de los estudiantes activos por id, código de estudiante y DNI.
+ * Se carga una sola vez desde la BD y {@link EstudianteDAO} lo mantiene al día en
+ * cada escritura, de modo que los flujos de registro (QR, DNI/código) resuelven al
+ * estudiante sin consultas SQL ni recorridos de listas.
+ *
+ * Las lecturas no bloquean; las escrituras se serializan para que los tres mapas
+ * nunca apunten a versiones distintas del mismo estudiante. Los objetos devueltos
+ * son compartidos y no deben modificarse.
+ */
+@Log
+public final class IndiceEstudiantes {
+
+    private static final IndiceEstudiantes INSTANCE = new IndiceEstudiantes();
+
+    private final Map<Integer, Estudiante> porId = new ConcurrentHashMap<>();
+    private final Map<String, Estudiante> porCodigo = new ConcurrentHashMap<>();
+    private final Map<String, Estudiante> porDni = new ConcurrentHashMap<>();
+
+    private volatile boolean cargado;
+
+    private IndiceEstudiantes() {
+    }
+
+    public static IndiceEstudiantes getInstance() {
+        INSTANCE.asegurarCargado();
+        return INSTANCE;
+    }
+
+    // ==================== CONSULTAS ====================
+
+    public Optional<Estudiante> buscarPorId(Integer id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(porId.get(id));
+    }
+
+    public Optional<Estudiante> buscarPorCodigo(String codigoEstudiante) {
+        return codigoEstudiante == null ? Optional.empty() : Optional.ofNullable(porCodigo.get(codigoEstudiante));
+    }
+
+    public Optional<Estudiante> buscarPorDni(String dni) {
+        return dni == null ? Optional.empty() : Optional.ofNullable(porDni.get(dni));
+    }
+
+    /**
+     * Resuelve un valor que puede ser DNI o código de estudiante (registro rápido).
+     */
+    public Optional<Estudiante> buscarPorDniOCodigo(String dniCodigo) {
+        Optional<Estudiante> estudiante = buscarPorDni(dniCodigo);
+        return estudiante.isPresent() ? estudiante : buscarPorCodigo(dniCodigo);
+    }
+
+    public int getTamanio() {
+        return porId.size();
+    }
+
+    // ==================== MANTENIMIENTO (solo desde EstudianteDAO) ====================
+
+    /**
+     * Agrega o reemplaza al estudiante. Si está inactivo se retira del índice.
+     */
+    synchronized void registrar(Estudiante estudiante) {
+        if (estudiante == null || estudiante.getId() == null) {
+            return;
+        }
+        quitarSinBloqueo(estudiante.getId());
+        if (estudiante.getActivo() != null && !estudiante.getActivo()) {
+            return;
+        }
+        porId.put(estudiante.getId(), estudiante);
+        if (estudiante.getCodigoEstudiante() != null) {
+            porCodigo.put(estudiante.getCodigoEstudiante(), estudiante);
+        }
+        if (estudiante.getDni() != null) {
+            porDni.put(estudiante.getDni(), estudiante);
+        }
+    }
+
+    synchronized void quitar(Integer id) {
+        if (id != null) {
+            quitarSinBloqueo(id);
+        }
+    }
+
+    synchronized void quitarPorDni(String dni) {
+        Estudiante estudiante = dni == null ? null : porDni.get(dni);
+        if (estudiante != null) {
+            quitarSinBloqueo(estudiante.getId());
+        }
+    }
+
+    /**
+     * Descarta el contenido actual y vuelve a cargar desde la BD.
+     */
+    synchronized void recargar() {
+        porId.clear();
+        porCodigo.clear();
+        porDni.clear();
+        List<Estudiante> estudiantes = new EstudianteDAO().obtenerTodos();
+        for (Estudiante estudiante : estudiantes) {
+            registrar(estudiante);
+        }
+        cargado = true;
+        log.info("📇 Índice de estudiantes cargado: " + porId.size() + " activos");
+    }
+
+    private void asegurarCargado() {
+        if (!cargado) {
+            synchronized (this) {
+                if (!cargado) {
+                    recargar();
+                }
+            }
+        }
+    }
+
+    private void quitarSinBloqueo(Integer id) {
+        Estudiante anterior = porId.remove(id);
+        if (anterior != null) {
+            // Solo se borran las claves que siguen apuntando a este estudiante
+            if (anterior.getCodigoEstudiante() != null) {
+                porCodigo.remove(anterior.getCodigoEstudiante(), anterior);
+            }
+            if (anterior.getDni() != null) {
+                porDni.remove(anterior.getDni(), anterior);
+            }
+        }
+    }
+}
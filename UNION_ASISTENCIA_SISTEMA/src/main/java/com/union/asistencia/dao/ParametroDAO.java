@@ -0,0 +1,34 @@
+package com.union.asistencia.dao;
+
+import lombok.extern.java.Log;
+
+import java.sql.*;
+import java.util.Optional;
+
+/**
+ * Acceso a la tabla parametros_sistema (pares clave/valor propios de cada base de datos).
+ */
+@Log
+public class ParametroDAO {
+
+    /** Clave aleatoria (hex) con la que se firman los códigos QR */
+    public static final String CLAVE_FIRMA_QR = "qr.clave_firma";
+
+    public Optional<String> obtener(String clave) {
+        String sql = "SELECT valor FROM parametros_sistema WHERE clave = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, clave);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.ofNullable(rs.getString("valor"));
+                }
+            }
+        } catch (SQLException e) {
+            log.severe("Error al obtener parámetro " + clave + ": " + e.getMessage());
+        }
+        return Optional.empty();
+    }
+}
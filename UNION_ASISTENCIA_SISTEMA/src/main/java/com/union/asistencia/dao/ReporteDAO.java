@@ -1,76 +1,96 @@
 package com.union.asistencia.dao;
 
+import com.union.asistencia.model.ResultadoReporte;
 import lombok.extern.java.Log;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Log
 public class ReporteDAO {
-    public List<Map<String, Object>> generarReporteAsistenciaMensual(int mes, int anio) {
-        List<Map<String, Object>> reporte = new ArrayList<>();
 
+    /** Hilos para las consultas de agregación independientes de un mismo reporte */
+    private static final ExecutorService EJECUTOR_CONSULTAS = Executors.newFixedThreadPool(4, r -> {
+        Thread hilo = new Thread(r, "reportes-consulta");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    public ResultadoReporte generarReporteAsistenciaMensual(int mes, int anio) {
+        ResultadoReporte.Constructor reporte = ResultadoReporte.constructor()
+                .texto("Código").texto("Estudiante").texto("Carrera")
+                .entero("Total Clases").entero("Asistencias").entero("Ausencias")
+                .entero("Tardanzas").entero("Justificados")
+                .porcentaje("Porcentaje Asistencia");
+
+        // Se lee el resumen diario: por estudiante se recorren solo los días del mes
         String sql = "SELECT e.codigo_estudiante, e.nombre, e.apellido, e.carrera, " +
-                "COUNT(a.id) as total_clases, " +
-                "SUM(CASE WHEN a.estado = 'PRESENTE' THEN 1 ELSE 0 END) as asistencias, " +
-                "SUM(CASE WHEN a.estado = 'AUSENTE' THEN 1 ELSE 0 END) as ausencias, " +
-                "SUM(CASE WHEN a.estado = 'TARDANZA' THEN 1 ELSE 0 END) as tardanzas, " +
-                "SUM(CASE WHEN a.estado = 'JUSTIFICADO' THEN 1 ELSE 0 END) as justificados " +
+                "COALESCE(SUM(r.total), 0) as total_clases, " +
+                "SUM(CASE WHEN r.estado = 'PRESENTE' THEN r.total ELSE 0 END) as asistencias, " +
+                "SUM(CASE WHEN r.estado = 'AUSENTE' THEN r.total ELSE 0 END) as ausencias, " +
+                "SUM(CASE WHEN r.estado = 'TARDANZA' THEN r.total ELSE 0 END) as tardanzas, " +
+                "SUM(CASE WHEN r.estado = 'JUSTIFICADO' THEN r.total ELSE 0 END) as justificados " +
                 "FROM estudiantes e " +
-                "LEFT JOIN asistencias a ON e.id = a.estudiante_id " +
-                "AND strftime('%m', a.fecha_hora) = ? AND strftime('%Y', a.fecha_hora) = ? " +
+                "LEFT JOIN resumen_asistencias r ON r.estudiante_id = e.id " +
+                "AND r.dia BETWEEN ? AND ? " +
                 "WHERE e.activo = TRUE " +
                 "GROUP BY e.id, e.codigo_estudiante, e.nombre, e.apellido, e.carrera " +
                 "ORDER BY e.apellido, e.nombre";
 
+        LocalDate inicioMes = LocalDate.of(anio, mes, 1);
+
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, String.format("%02d", mes));
-            stmt.setString(2, String.valueOf(anio));
-
-            ResultSet rs = stmt.executeQuery();
+            stmt.setString(1, inicioMes.toString());
+            stmt.setString(2, inicioMes.withDayOfMonth(inicioMes.lengthOfMonth()).toString());
 
-            while (rs.next()) {
-                Map<String, Object> fila = new HashMap<>();
-                fila.put("Código", rs.getString("codigo_estudiante"));
-                fila.put("Estudiante", rs.getString("nombre") + " " + rs.getString("apellido"));
-                fila.put("Carrera", rs.getString("carrera"));
-                fila.put("Total Clases", rs.getInt("total_clases"));
-                fila.put("Asistencias", rs.getInt("asistencias"));
-                fila.put("Ausencias", rs.getInt("ausencias"));
-                fila.put("Tardanzas", rs.getInt("tardanzas"));
-                fila.put("Justificados", rs.getInt("justificados"));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int total = rs.getInt("total_clases");
+                    int asistencias = rs.getInt("asistencias");
+                    int justificados = rs.getInt("justificados");
+                    int presentes = asistencias + justificados;
 
-                int total = rs.getInt("total_clases");
-                int presentes = rs.getInt("asistencias") + rs.getInt("justificados");
-                double porcentaje = total > 0 ? (presentes * 100.0) / total : 0;
-                fila.put("Porcentaje Asistencia", String.format("%.2f%%", porcentaje));
-
-                reporte.add(fila);
+                    reporte.nuevaFila()
+                            .texto(0, rs.getString("codigo_estudiante"))
+                            .texto(1, rs.getString("nombre") + " " + rs.getString("apellido"))
+                            .texto(2, rs.getString("carrera"))
+                            .entero(3, total)
+                            .entero(4, asistencias)
+                            .entero(5, rs.getInt("ausencias"))
+                            .entero(6, rs.getInt("tardanzas"))
+                            .entero(7, justificados)
+                            .porcentaje(8, total > 0 ? (presentes * 100.0) / total : 0);
+                }
             }
         } catch (SQLException e) {
             log.severe("Error al generar reporte de asistencia mensual: " + e.getMessage());
         }
-        return reporte;
+        return reporte.construir();
     }
 
-    public List<Map<String, Object>> generarReporteAsistenciaPorAsignatura(Integer asignaturaId, LocalDate fechaInicio, LocalDate fechaFin) {
-        List<Map<String, Object>> reporte = new ArrayList<>();
+    public ResultadoReporte generarReporteAsistenciaPorAsignatura(Integer asignaturaId, LocalDate fechaInicio, LocalDate fechaFin) {
+        ResultadoReporte.Constructor reporte = ResultadoReporte.constructor()
+                .texto("Código").texto("Estudiante")
+                .entero("Total Clases").entero("Asistencias").entero("Ausencias").entero("Tardanzas")
+                .porcentaje("Porcentaje Asistencia");
+
         String sql = "SELECT e.codigo_estudiante, e.nombre, e.apellido, " +
-                "COUNT(a.id) as total_clases, " +
-                "SUM(CASE WHEN a.estado = 'PRESENTE' THEN 1 ELSE 0 END) as asistencias, " +
-                "SUM(CASE WHEN a.estado = 'AUSENTE' THEN 1 ELSE 0 END) as ausencias, " +
-                "SUM(CASE WHEN a.estado = 'TARDANZA' THEN 1 ELSE 0 END) as tardanzas " +
+                "COALESCE(SUM(r.total), 0) as total_clases, " +
+                "SUM(CASE WHEN r.estado = 'PRESENTE' THEN r.total ELSE 0 END) as asistencias, " +
+                "SUM(CASE WHEN r.estado = 'AUSENTE' THEN r.total ELSE 0 END) as ausencias, " +
+                "SUM(CASE WHEN r.estado = 'TARDANZA' THEN r.total ELSE 0 END) as tardanzas " +
                 "FROM estudiantes e " +
-                "LEFT JOIN asistencias a ON e.id = a.estudiante_id " +
-                "AND a.asignatura_id = ? " +
-                "AND DATE(a.fecha_hora) BETWEEN ? AND ? " +
+                "LEFT JOIN resumen_asistencias r ON r.estudiante_id = e.id " +
+                "AND r.dia BETWEEN ? AND ? " +
+                "AND r.asignatura_id = ? " +
                 "WHERE e.activo = TRUE " +
                 "GROUP BY e.id, e.codigo_estudiante, e.nombre, e.apellido " +
                 "ORDER BY e.apellido, e.nombre";
@@ -78,78 +98,115 @@ public class ReporteDAO {
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, asignaturaId);
-            stmt.setString(2, fechaInicio.toString());
-            stmt.setString(3, fechaFin.toString());
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                Map<String, Object> fila = new HashMap<>();
-                fila.put("Código", rs.getString("codigo_estudiante"));
-                fila.put("Estudiante", rs.getString("nombre") + " " + rs.getString("apellido"));
-                fila.put("Total Clases", rs.getInt("total_clases"));
-                fila.put("Asistencias", rs.getInt("asistencias"));
-                fila.put("Ausencias", rs.getInt("ausencias"));
-                fila.put("Tardanzas", rs.getInt("tardanzas"));
-
-                int total = rs.getInt("total_clases");
-                int presentes = rs.getInt("asistencias");
-                double porcentaje = total > 0 ? (presentes * 100.0) / total : 0;
-                fila.put("Porcentaje Asistencia", String.format("%.2f%%", porcentaje));
-
-                reporte.add(fila);
+            stmt.setString(1, fechaInicio.toString());
+            stmt.setString(2, fechaFin.toString());
+            stmt.setInt(3, asignaturaId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int total = rs.getInt("total_clases");
+                    int presentes = rs.getInt("asistencias");
+
+                    reporte.nuevaFila()
+                            .texto(0, rs.getString("codigo_estudiante"))
+                            .texto(1, rs.getString("nombre") + " " + rs.getString("apellido"))
+                            .entero(2, total)
+                            .entero(3, presentes)
+                            .entero(4, rs.getInt("ausencias"))
+                            .entero(5, rs.getInt("tardanzas"))
+                            .porcentaje(6, total > 0 ? (presentes * 100.0) / total : 0);
+                }
             }
         } catch (SQLException e) {
             log.severe("Error al generar reporte de asistencia por asignatura: " + e.getMessage());
         }
-        return reporte;
+        return reporte.construir();
+    }
+
+    /**
+     * Totales del periodo para el panel de estadísticas. Cada total es una consulta
+     * independiente (antes se calculaban sobre el producto cartesiano de estudiantes,
+     * docentes, asignaturas y asistencias, lo que además multiplicaba los conteos);
+     * se ejecutan en paralelo, cada una con su propia conexión del pool.
+     */
+    public ResultadoReporte generarEstadisticasGenerales(LocalDate fechaInicio, LocalDate fechaFin) {
+        ResultadoReporte.Constructor estadisticas = ResultadoReporte.constructor()
+                .entero("Total Estudiantes").entero("Total Docentes").entero("Total Asignaturas")
+                .entero("Total Asistencias").entero("Asistencias Presentes")
+                .entero("Asistencias Ausentes").entero("Asistencias Tardanzas")
+                .porcentaje("Porcentaje Asistencia General");
+
+        CompletableFuture<Integer> estudiantes = CompletableFuture.supplyAsync(
+                () -> contar("SELECT COUNT(*) FROM estudiantes WHERE activo = TRUE"), EJECUTOR_CONSULTAS);
+        CompletableFuture<Integer> docentes = CompletableFuture.supplyAsync(
+                () -> contar("SELECT COUNT(*) FROM docentes WHERE activo = TRUE"), EJECUTOR_CONSULTAS);
+        CompletableFuture<Integer> asignaturas = CompletableFuture.supplyAsync(
+                () -> contar("SELECT COUNT(*) FROM asignaturas WHERE activo = TRUE"), EJECUTOR_CONSULTAS);
+        CompletableFuture<Map<String, Integer>> porEstado = CompletableFuture.supplyAsync(
+                () -> contarAsistenciasPorEstado(fechaInicio, fechaFin), EJECUTOR_CONSULTAS);
+
+        Map<String, Integer> estados = porEstado.join();
+        int totalAsistencias = estados.values().stream().mapToInt(Integer::intValue).sum();
+        int presentes = estados.getOrDefault("PRESENTE", 0);
+
+        estadisticas.nuevaFila()
+                .entero(0, estudiantes.join())
+                .entero(1, docentes.join())
+                .entero(2, asignaturas.join())
+                .entero(3, totalAsistencias)
+                .entero(4, presentes)
+                .entero(5, estados.getOrDefault("AUSENTE", 0))
+                .entero(6, estados.getOrDefault("TARDANZA", 0))
+                .porcentaje(7, totalAsistencias > 0 ? (presentes * 100.0) / totalAsistencias : 0);
+        return estadisticas.construir();
     }
 
-    public Map<String, Object> generarEstadisticasGenerales(LocalDate fechaInicio, LocalDate fechaFin) {
-        Map<String, Object> estadisticas = new HashMap<>();
-        String sql = "SELECT " +
-                "COUNT(DISTINCT e.id) as total_estudiantes, " +
-                "COUNT(DISTINCT d.id) as total_docentes, " +
-                "COUNT(DISTINCT a.id) as total_asignaturas, " +
-                "COUNT(asist.id) as total_asistencias, " +
-                "SUM(CASE WHEN asist.estado = 'PRESENTE' THEN 1 ELSE 0 END) as asistencias_presentes, " +
-                "SUM(CASE WHEN asist.estado = 'AUSENTE' THEN 1 ELSE 0 END) as asistencias_ausentes, " +
-                "SUM(CASE WHEN asist.estado = 'TARDANZA' THEN 1 ELSE 0 END) as asistencias_tardanzas " +
-                "FROM estudiantes e, docentes d, asignaturas a " +
-                "LEFT JOIN asistencias asist ON a.id = asist.asignatura_id " +
-                "AND DATE(asist.fecha_hora) BETWEEN ? AND ? " +
-                "WHERE e.activo = TRUE AND d.activo = TRUE AND a.activo = TRUE";
+    /**
+     * Asistencias a asignaturas activas del periodo agrupadas por estado, leídas del
+     * resumen diario por el índice (dia, estado, total).
+     */
+    private Map<String, Integer> contarAsistenciasPorEstado(LocalDate fechaInicio, LocalDate fechaFin) {
+        Map<String, Integer> estados = new HashMap<>();
+        String sql = "SELECT r.estado, SUM(r.total) as total " +
+                "FROM resumen_asistencias r " +
+                "WHERE r.dia BETWEEN ? AND ? " +
+                "AND r.asignatura_id IN (SELECT id FROM asignaturas WHERE activo = TRUE) " +
+                "GROUP BY r.estado";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, fechaInicio.toString());
             stmt.setString(2, fechaFin.toString());
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                estadisticas.put("Total Estudiantes", rs.getInt("total_estudiantes"));
-                estadisticas.put("Total Docentes", rs.getInt("total_docentes"));
-                estadisticas.put("Total Asignaturas", rs.getInt("total_asignaturas"));
-                estadisticas.put("Total Asistencias", rs.getInt("total_asistencias"));
-                estadisticas.put("Asistencias Presentes", rs.getInt("asistencias_presentes"));
-                estadisticas.put("Asistencias Ausentes", rs.getInt("asistencias_ausentes"));
-                estadisticas.put("Asistencias Tardanzas", rs.getInt("asistencias_tardanzas"));
-
-                int totalAsistencias = rs.getInt("total_asistencias");
-                int presentes = rs.getInt("asistencias_presentes");
-                double porcentajeAsistencia = totalAsistencias > 0 ? (presentes * 100.0) / totalAsistencias : 0;
-                estadisticas.put("Porcentaje Asistencia General", String.format("%.2f%%", porcentajeAsistencia));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    estados.put(rs.getString("estado"), rs.getInt("total"));
+                }
             }
+        } catch (SQLException e) {
+            log.severe("Error al contar asistencias por estado: " + e.getMessage());
+        }
+        return estados;
+    }
+
+    private int contar(String sql) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
         } catch (SQLException e) {
             log.severe("Error al generar estadísticas generales: " + e.getMessage());
+            return 0;
         }
-        return estadisticas;
     }
 
     // ✅ MÉTODO CORREGIDO PARA PARTICIPACIÓN EN EVENTOS
-    public List<Map<String, Object>> generarReporteParticipacionEventos(LocalDate fechaInicio, LocalDate fechaFin) {
-        List<Map<String, Object>> reporte = new ArrayList<>();
+    public ResultadoReporte generarReporteParticipacionEventos(LocalDate fechaInicio, LocalDate fechaFin) {
+        ResultadoReporte.Constructor reporte = ResultadoReporte.constructor()
+                .texto("Evento").texto("Tipo").texto("Fecha").texto("Lugar")
+                .entero("Inscritos").entero("Asistentes")
+                .porcentaje("Participación");
 
         String sql = "SELECT ev.nombre, ev.tipo, ev.fecha_hora_inicio, ev.lugar, " +
                 "COUNT(pe.id) as total_inscritos, " +
@@ -166,41 +223,37 @@ public class ReporteDAO {
             stmt.setString(1, fechaInicio.toString());
             stmt.setString(2, fechaFin.toString());
 
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                Map<String, Object> fila = new HashMap<>();
-                fila.put("Evento", rs.getString("nombre"));
-                fila.put("Tipo", rs.getString("tipo"));
-
-                // Manejar fecha de forma segura
-                String fechaStr = rs.getString("fecha_hora_inicio");
-                if (fechaStr != null) {
-                    try {
-                        // Convertir formato SQLite a LocalDateTime
-                        LocalDateTime fechaHora = LocalDateTime.parse(fechaStr.replace(' ', 'T'));
-                        fila.put("Fecha", fechaHora.toLocalDate().toString());
-                    } catch (Exception e) {
-                        fila.put("Fecha", fechaStr);
-                    }
-                } else {
-                    fila.put("Fecha", "N/A");
-                }
-
-                fila.put("Lugar", rs.getString("lugar"));
-                fila.put("Inscritos", rs.getInt("total_inscritos"));
-                fila.put("Asistentes", rs.getInt("total_asistentes"));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int inscritos = rs.getInt("total_inscritos");
+                    int asistentes = rs.getInt("total_asistentes");
 
-                int inscritos = rs.getInt("total_inscritos");
-                int asistentes = rs.getInt("total_asistentes");
-                double porcentaje = inscritos > 0 ? (asistentes * 100.0) / inscritos : 0;
-                fila.put("Participación", String.format("%.2f%%", porcentaje));
-
-                reporte.add(fila);
+                    reporte.nuevaFila()
+                            .texto(0, rs.getString("nombre"))
+                            .texto(1, rs.getString("tipo"))
+                            .texto(2, fechaEvento(rs.getString("fecha_hora_inicio")))
+                            .texto(3, rs.getString("lugar"))
+                            .entero(4, inscritos)
+                            .entero(5, asistentes)
+                            .porcentaje(6, inscritos > 0 ? (asistentes * 100.0) / inscritos : 0);
+                }
             }
         } catch (SQLException e) {
             log.severe("Error al generar reporte de participación en eventos: " + e.getMessage());
         }
-        return reporte;
+        return reporte.construir();
+    }
+
+    // Manejar fecha de forma segura
+    private static String fechaEvento(String fechaStr) {
+        if (fechaStr == null) {
+            return "N/A";
+        }
+        try {
+            // Convertir formato SQLite a LocalDateTime
+            return LocalDateTime.parse(fechaStr.replace(' ', 'T')).toLocalDate().toString();
+        } catch (Exception e) {
+            return fechaStr;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,14 @@
+package com.union.asistencia.dao;
+
+/**
+ * Resultado de un registro de asistencia idempotente: indica en una sola
+ * operación si la fila se insertó o si ya existía.
+ */
+public enum ResultadoRegistro {
+    /** Se registró la asistencia en esta llamada */
+    REGISTRADO,
+    /** La asistencia ya estaba registrada; no se modificó nada */
+    YA_REGISTRADO,
+    /** No se pudo registrar (error de base de datos o cola llena) */
+    ERROR
+}
@@ -0,0 +1,513 @@
+package com.union.asistencia.dao;
+
+import lombok.extern.java.Log;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Motor de migraciones versionadas del esquema SQLite.
+ * La versión aplicada se guarda en la tabla schema_version; al iniciar solo se
+ * ejecutan los pasos con versión mayor, cada uno en su propia transacción.
+ * Con el esquema al día el arranque se reduce a una única consulta.
+ *
+ * Para cambiar el esquema se agrega un nuevo paso al final de {@link #MIGRACIONES};
+ * los pasos ya publicados no deben modificarse.
+ */
+@Log
+final class SchemaMigrator {
+
+    private static final String CREATE_SCHEMA_VERSION = """
+            CREATE TABLE IF NOT EXISTS schema_version (
+                version INTEGER PRIMARY KEY,
+                descripcion TEXT NOT NULL,
+                fecha_aplicacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+            )
+            """;
+
+    // ==================== VERSIÓN 1: ESQUEMA BASE ====================
+
+    // Crear tabla de usuarios
+    private static final String CREATE_USUARIOS = """
+            CREATE TABLE IF NOT EXISTS usuarios (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                username TEXT UNIQUE NOT NULL,
+                password_hash TEXT NOT NULL,
+                nombre TEXT NOT NULL,
+                apellido TEXT NOT NULL,
+                email TEXT UNIQUE NOT NULL,
+                rol TEXT DEFAULT 'DOCENTE',
+                fecha_creacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                activo BOOLEAN DEFAULT 1
+            )
+            """;
+
+    // Crear tabla de estudiantes - ✅ EMAIL SIN UNIQUE
+    private static final String CREATE_ESTUDIANTES = """
+            CREATE TABLE IF NOT EXISTS estudiantes (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                codigo_estudiante TEXT UNIQUE NOT NULL,
+                dni TEXT UNIQUE NOT NULL,
+                nombre TEXT NOT NULL,
+                apellido TEXT NOT NULL,
+                email TEXT,
+                telefono TEXT,
+                carrera TEXT NOT NULL,
+                semestre INTEGER NOT NULL,
+                grupo TEXT,
+                fecha_nacimiento TEXT NOT NULL,
+                direccion TEXT,
+                activo BOOLEAN DEFAULT 1,
+                fecha_registro TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+            )
+            """;
+
+    // Crear tabla de docentes
+    private static final String CREATE_DOCENTES = """
+            CREATE TABLE IF NOT EXISTS docentes (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                codigo_docente TEXT UNIQUE NOT NULL,
+                dni TEXT UNIQUE NOT NULL,
+                nombre TEXT NOT NULL,
+                apellido TEXT NOT NULL,
+                email TEXT UNIQUE NOT NULL,
+                telefono TEXT,
+                facultad TEXT NOT NULL,
+                especialidad TEXT,
+                carga_horaria INTEGER DEFAULT 0,
+                fecha_contratacion TEXT NOT NULL,
+                activo BOOLEAN DEFAULT 1
+            )
+            """;
+
+    // Crear tabla de asignaturas
+    private static final String CREATE_ASIGNATURAS = """
+            CREATE TABLE IF NOT EXISTS asignaturas (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                codigo_asignatura TEXT UNIQUE NOT NULL,
+                nombre TEXT NOT NULL,
+                creditos INTEGER NOT NULL,
+                horas_teoria INTEGER DEFAULT 0,
+                horas_practica INTEGER DEFAULT 0,
+                ciclo TEXT,
+                facultad TEXT NOT NULL,
+                plan_estudios TEXT,
+                docente_id INTEGER,
+                activo BOOLEAN DEFAULT 1,
+                FOREIGN KEY (docente_id) REFERENCES docentes(id)
+            )
+            """;
+
+    // Crear tabla de aulas
+    private static final String CREATE_AULAS = """
+            CREATE TABLE IF NOT EXISTS aulas (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                codigo_aula TEXT UNIQUE NOT NULL,
+                nombre TEXT NOT NULL,
+                edificio TEXT NOT NULL,
+                capacidad INTEGER NOT NULL,
+                tipo TEXT DEFAULT 'AULA',
+                equipamiento TEXT,
+                disponible BOOLEAN DEFAULT 1,
+                observaciones TEXT
+            )
+            """;
+
+    // Crear tabla de horarios
+    private static final String CREATE_HORARIOS = """
+            CREATE TABLE IF NOT EXISTS horarios (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                dia_semana TEXT NOT NULL,
+                hora_inicio TEXT NOT NULL,
+                hora_fin TEXT NOT NULL,
+                tipo TEXT DEFAULT 'TEORIA',
+                aula TEXT,
+                asignatura_id INTEGER NOT NULL,
+                docente_id INTEGER NOT NULL,
+                FOREIGN KEY (asignatura_id) REFERENCES asignaturas(id),
+                FOREIGN KEY (docente_id) REFERENCES docentes(id)
+            )
+            """;
+
+    // Crear tabla de eventos
+    private static final String CREATE_EVENTOS = """
+            CREATE TABLE IF NOT EXISTS eventos (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                nombre TEXT NOT NULL,
+                tipo TEXT DEFAULT 'ACADEMICO',
+                descripcion TEXT,
+                fecha_hora_inicio TEXT NOT NULL,
+                fecha_hora_fin TEXT NOT NULL,
+                lugar TEXT NOT NULL,
+                responsable TEXT,
+                capacidad_maxima INTEGER,
+                requiere_inscripcion BOOLEAN DEFAULT 0,
+                activo BOOLEAN DEFAULT 1,
+                fecha_creacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+            )
+            """;
+
+    // Crear tabla de asistencias
+    private static final String CREATE_ASISTENCIAS = """
+            CREATE TABLE IF NOT EXISTS asistencias (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                fecha_hora TEXT NOT NULL,
+                estado TEXT DEFAULT 'PRESENTE',
+                observaciones TEXT,
+                tipo_registro TEXT DEFAULT 'MANUAL',
+                estudiante_id INTEGER NOT NULL,
+                asignatura_id INTEGER NOT NULL,
+                docente_id INTEGER NOT NULL,
+                evento_id INTEGER,
+                FOREIGN KEY (estudiante_id) REFERENCES estudiantes(id),
+                FOREIGN KEY (asignatura_id) REFERENCES asignaturas(id),
+                FOREIGN KEY (docente_id) REFERENCES docentes(id),
+                FOREIGN KEY (evento_id) REFERENCES eventos(id)
+            )
+            """;
+
+    // Crear tabla de participantes_evento
+    private static final String CREATE_PARTICIPANTES_EVENTO = """
+            CREATE TABLE IF NOT EXISTS participantes_evento (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                tipo_participante TEXT DEFAULT 'ESTUDIANTE',
+                asistio BOOLEAN DEFAULT 0,
+                fecha_inscripcion TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                codigo_qr TEXT,
+                evento_id INTEGER NOT NULL,
+                estudiante_id INTEGER,
+                docente_id INTEGER,
+                FOREIGN KEY (evento_id) REFERENCES eventos(id),
+                FOREIGN KEY (estudiante_id) REFERENCES estudiantes(id),
+                FOREIGN KEY (docente_id) REFERENCES docentes(id),
+                UNIQUE(evento_id, estudiante_id, docente_id)
+            )
+            """;
+
+    // ✅ NUEVA TABLA: asistencias_eventos
+    private static final String CREATE_ASISTENCIAS_EVENTOS = """
+            CREATE TABLE IF NOT EXISTS asistencias_eventos (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                evento_id INTEGER NOT NULL,
+                estudiante_id INTEGER,
+                docente_id INTEGER,
+                fecha_hora_registro TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                tipo_registro TEXT NOT NULL,
+                estado TEXT NOT NULL,
+                FOREIGN KEY (evento_id) REFERENCES eventos(id),
+                FOREIGN KEY (estudiante_id) REFERENCES estudiantes(id),
+                FOREIGN KEY (docente_id) REFERENCES docentes(id)
+            )
+            """;
+
+    // Crear tabla de auditoria_login
+    private static final String CREATE_AUDITORIA_LOGIN = """
+            CREATE TABLE IF NOT EXISTS auditoria_login (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                username TEXT NOT NULL,
+                fecha_intento TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                ip_address TEXT,
+                exito BOOLEAN DEFAULT 0,
+                intento_numero INTEGER,
+                user_agent TEXT
+            )
+            """;
+
+    // Solo mantener el usuario admin mínimo para poder acceder al sistema
+    private static final String INSERT_ADMIN = """
+            INSERT OR IGNORE INTO usuarios (username, password_hash, nombre, apellido, email, rol) 
+            VALUES ('admin', 'admin', 'Administrador', 'Sistema', 'admin@upeu.edu.pe', 'ADMIN')
+            """;
+
+    // ✅ INSERTAR SOLO DOCENTES BÁSICOS (sin datos de prueba antiguos)
+    private static final String INSERT_DOCENTES = """
+            INSERT OR IGNORE INTO docentes (codigo_docente, dni, nombre, apellido, email, telefono, facultad, especialidad, carga_horaria, fecha_contratacion, activo) VALUES
+            ('DOC001', '87654321', 'Roberto', 'Silva Mendoza', 'roberto.silva@upeu.edu.pe', '987654326', 'Ingeniería', 'Sistemas', 40, '2018-03-15', 1),
+            ('DOC002', '76543210', 'Elena', 'Torres Rojas', 'elena.torres@upeu.edu.pe', '987654327', 'Ciencias de la Salud', 'Enfermería', 35, '2019-08-20', 1)
+            """;
+
+    // ✅ ACTIVAR DOCENTES EXISTENTES (antes se ejecutaba en cada arranque)
+    private static final String ACTIVAR_DOCENTES =
+            "UPDATE docentes SET activo = 1 WHERE activo = 0 OR activo IS NULL";
+
+    // ==================== VERSIÓN 6: RESUMEN DE ASISTENCIAS ====================
+
+    // Conteo de asistencias por (estudiante, día, asignatura, estado). Los reportes leen
+    // esta tabla en lugar de recorrer todo el historial; asignatura_id = 0 agrupa los
+    // registros sin asignatura (asistencia a eventos por QR).
+    private static final String CREATE_RESUMEN_ASISTENCIAS = """
+            CREATE TABLE IF NOT EXISTS resumen_asistencias (
+                estudiante_id INTEGER NOT NULL,
+                dia TEXT NOT NULL,
+                asignatura_id INTEGER NOT NULL,
+                estado TEXT NOT NULL,
+                total INTEGER NOT NULL,
+                PRIMARY KEY (estudiante_id, dia, asignatura_id, estado)
+            ) WITHOUT ROWID
+            """;
+
+    // Los triggers actualizan el resumen en la misma transacción que la escritura de la
+    // asistencia, así quedan cubiertos el guardado individual, los lotes y la cola de
+    // escritura agrupada sin cambiar el código que inserta.
+    private static final String TRIGGER_RESUMEN_INSERT = """
+            CREATE TRIGGER IF NOT EXISTS trg_resumen_asistencias_insert
+            AFTER INSERT ON asistencias
+            BEGIN
+                INSERT INTO resumen_asistencias (estudiante_id, dia, asignatura_id, estado, total)
+                VALUES (NEW.estudiante_id, substr(NEW.fecha_hora, 1, 10), IFNULL(NEW.asignatura_id, 0),
+                        IFNULL(NEW.estado, ''), 1)
+                ON CONFLICT (estudiante_id, dia, asignatura_id, estado) DO UPDATE SET total = total + 1;
+            END
+            """;
+
+    private static final String TRIGGER_RESUMEN_DELETE = """
+            CREATE TRIGGER IF NOT EXISTS trg_resumen_asistencias_delete
+            AFTER DELETE ON asistencias
+            BEGIN
+                UPDATE resumen_asistencias SET total = total - 1
+                WHERE estudiante_id = OLD.estudiante_id AND dia = substr(OLD.fecha_hora, 1, 10)
+                  AND asignatura_id = IFNULL(OLD.asignatura_id, 0) AND estado = IFNULL(OLD.estado, '');
+                DELETE FROM resumen_asistencias
+                WHERE estudiante_id = OLD.estudiante_id AND dia = substr(OLD.fecha_hora, 1, 10)
+                  AND asignatura_id = IFNULL(OLD.asignatura_id, 0) AND estado = IFNULL(OLD.estado, '')
+                  AND total <= 0;
+            END
+            """;
+
+    private static final String TRIGGER_RESUMEN_UPDATE = """
+            CREATE TRIGGER IF NOT EXISTS trg_resumen_asistencias_update
+            AFTER UPDATE OF fecha_hora, estado, estudiante_id, asignatura_id ON asistencias
+            BEGIN
+                UPDATE resumen_asistencias SET total = total - 1
+                WHERE estudiante_id = OLD.estudiante_id AND dia = substr(OLD.fecha_hora, 1, 10)
+                  AND asignatura_id = IFNULL(OLD.asignatura_id, 0) AND estado = IFNULL(OLD.estado, '');
+                DELETE FROM resumen_asistencias
+                WHERE estudiante_id = OLD.estudiante_id AND dia = substr(OLD.fecha_hora, 1, 10)
+                  AND asignatura_id = IFNULL(OLD.asignatura_id, 0) AND estado = IFNULL(OLD.estado, '')
+                  AND total <= 0;
+                INSERT INTO resumen_asistencias (estudiante_id, dia, asignatura_id, estado, total)
+                VALUES (NEW.estudiante_id, substr(NEW.fecha_hora, 1, 10), IFNULL(NEW.asignatura_id, 0),
+                        IFNULL(NEW.estado, ''), 1)
+                ON CONFLICT (estudiante_id, dia, asignatura_id, estado) DO UPDATE SET total = total + 1;
+            END
+            """;
+
+    // ==================== VERSIÓN 8: BÚSQUEDA DE TEXTO COMPLETO ====================
+
+    /**
+     * Sentencias de un índice FTS5 de contenido externo sobre las columnas indicadas:
+     * la tabla virtual (sin tildes y con prefijos de 2 y 3 letras precalculados), los
+     * triggers que la mantienen al día con cada escritura y la carga inicial.
+     */
+    private static String[] indiceTextoCompleto(String tabla, String... columnas) {
+        String indice = tabla + "_fts";
+        String lista = String.join(", ", columnas);
+        String nuevos = "NEW." + String.join(", NEW.", columnas);
+        String anteriores = "OLD." + String.join(", OLD.", columnas);
+
+        String insertarNuevo = "INSERT INTO " + indice + " (rowid, " + lista + ") VALUES (NEW.id, " + nuevos + ");";
+        String borrarAnterior = "INSERT INTO " + indice + " (" + indice + ", rowid, " + lista + ") " +
+                "VALUES ('delete', OLD.id, " + anteriores + ");";
+
+        return new String[]{
+                "CREATE VIRTUAL TABLE IF NOT EXISTS " + indice + " USING fts5(" + lista + ", " +
+                        "content='" + tabla + "', content_rowid='id', " +
+                        "tokenize='unicode61 remove_diacritics 2', prefix='2 3')",
+                "CREATE TRIGGER IF NOT EXISTS trg_" + indice + "_insert AFTER INSERT ON " + tabla +
+                        " BEGIN " + insertarNuevo + " END",
+                "CREATE TRIGGER IF NOT EXISTS trg_" + indice + "_delete AFTER DELETE ON " + tabla +
+                        " BEGIN " + borrarAnterior + " END",
+                "CREATE TRIGGER IF NOT EXISTS trg_" + indice + "_update AFTER UPDATE OF " + lista + " ON " + tabla +
+                        " BEGIN " + borrarAnterior + " " + insertarNuevo + " END",
+                "INSERT INTO " + indice + " (" + indice + ") VALUES ('rebuild')"
+        };
+    }
+
+    private static String[] concatenar(String[]... grupos) {
+        return Arrays.stream(grupos).flatMap(Arrays::stream).toArray(String[]::new);
+    }
+
+    // ==================== LISTA ORDENADA DE MIGRACIONES ====================
+
+    private static final List<Migracion> MIGRACIONES = List.of(
+            new Migracion(1, "Esquema base y datos iniciales",
+                    CREATE_USUARIOS,
+                    CREATE_ESTUDIANTES,
+                    CREATE_DOCENTES,
+                    CREATE_ASIGNATURAS,
+                    CREATE_AULAS,
+                    CREATE_HORARIOS,
+                    CREATE_EVENTOS,
+                    CREATE_ASISTENCIAS,
+                    CREATE_PARTICIPANTES_EVENTO,
+                    CREATE_ASISTENCIAS_EVENTOS,
+                    CREATE_AUDITORIA_LOGIN,
+                    ACTIVAR_DOCENTES,
+                    INSERT_ADMIN,
+                    INSERT_DOCENTES),
+
+            new Migracion(2, "Índices para consultas frecuentes de asistencias y eventos",
+                    // existeAsistenciaEvento / registro por QR
+                    "CREATE INDEX IF NOT EXISTS idx_asistencias_estudiante_evento " +
+                            "ON asistencias(estudiante_id, evento_id)",
+                    // obtenerTodas (ORDER BY fecha_hora DESC) y filtros por rango de fechas
+                    "CREATE INDEX IF NOT EXISTS idx_asistencias_fecha_hora " +
+                            "ON asistencias(fecha_hora)",
+                    // obtenerPorEstudianteYFecha y reportes por estudiante (índice de cobertura con estado)
+                    "CREATE INDEX IF NOT EXISTS idx_asistencias_estudiante_fecha " +
+                            "ON asistencias(estudiante_id, fecha_hora, estado)",
+                    // generarReporteAsistenciaPorAsignatura
+                    "CREATE INDEX IF NOT EXISTS idx_asistencias_asignatura_fecha " +
+                            "ON asistencias(asignatura_id, fecha_hora, estado)",
+                    // existeAsistenciaEstudiante / contarAsistenciasPorEvento / obtenerAsistenciasPorEvento
+                    "CREATE INDEX IF NOT EXISTS idx_asistencias_eventos_evento_estudiante " +
+                            "ON asistencias_eventos(evento_id, estudiante_id)",
+                    // participantes por evento: cubre el conteo de inscritos y asistentes
+                    "CREATE INDEX IF NOT EXISTS idx_participantes_evento_evento " +
+                            "ON participantes_evento(evento_id, asistio)",
+                    // obtenerTodos / obtenerProximos de eventos
+                    "CREATE INDEX IF NOT EXISTS idx_eventos_fecha_inicio " +
+                            "ON eventos(fecha_hora_inicio)",
+                    "ANALYZE"),
+
+            new Migracion(3, "Código único de evento para el registro por QR",
+                    "ALTER TABLE eventos ADD COLUMN codigo_evento TEXT",
+                    // Conserva los códigos que antes estaban fijos en AsistenciaController
+                    "UPDATE eventos SET codigo_evento = CASE id " +
+                            "WHEN 1 THEN 'IG234' WHEN 2 THEN 'MAT101' WHEN 3 THEN 'EVT001' END " +
+                            "WHERE id IN (1, 2, 3)",
+                    "UPDATE eventos SET codigo_evento = 'EVT' || printf('%04d', id) " +
+                            "WHERE codigo_evento IS NULL",
+                    "CREATE UNIQUE INDEX IF NOT EXISTS idx_eventos_codigo " +
+                            "ON eventos(codigo_evento)"),
+
+            new Migracion(4, "Restricciones únicas para el registro idempotente de asistencia a eventos",
+                    // Depurar duplicados previos conservando el primer registro
+                    "DELETE FROM asistencias_eventos WHERE estudiante_id IS NOT NULL AND id NOT IN (" +
+                            "SELECT MIN(id) FROM asistencias_eventos WHERE estudiante_id IS NOT NULL " +
+                            "GROUP BY evento_id, estudiante_id)",
+                    "DELETE FROM asistencias_eventos WHERE docente_id IS NOT NULL AND id NOT IN (" +
+                            "SELECT MIN(id) FROM asistencias_eventos WHERE docente_id IS NOT NULL " +
+                            "GROUP BY evento_id, docente_id)",
+                    "CREATE UNIQUE INDEX IF NOT EXISTS uq_asistencias_eventos_estudiante " +
+                            "ON asistencias_eventos(evento_id, estudiante_id) WHERE estudiante_id IS NOT NULL",
+                    "CREATE UNIQUE INDEX IF NOT EXISTS uq_asistencias_eventos_docente " +
+                            "ON asistencias_eventos(evento_id, docente_id) WHERE docente_id IS NOT NULL",
+                    // UNIQUE(evento_id, estudiante_id, docente_id) no evita duplicados cuando docente_id es NULL
+                    "UPDATE participantes_evento SET asistio = 1 WHERE id IN (" +
+                            "SELECT MIN(id) FROM participantes_evento WHERE estudiante_id IS NOT NULL " +
+                            "GROUP BY evento_id, estudiante_id HAVING MAX(asistio) = 1)",
+                    "DELETE FROM participantes_evento WHERE estudiante_id IS NOT NULL AND id NOT IN (" +
+                            "SELECT MIN(id) FROM participantes_evento WHERE estudiante_id IS NOT NULL " +
+                            "GROUP BY evento_id, estudiante_id)",
+                    "CREATE UNIQUE INDEX IF NOT EXISTS uq_participantes_evento_estudiante " +
+                            "ON participantes_evento(evento_id, estudiante_id) WHERE estudiante_id IS NOT NULL"),
+
+            new Migracion(5, "Parámetros del sistema y clave de firma de códigos QR",
+                    "CREATE TABLE IF NOT EXISTS parametros_sistema (" +
+                            "clave TEXT PRIMARY KEY, " +
+                            "valor TEXT NOT NULL)",
+                    // Clave aleatoria de 256 bits propia de cada base de datos
+                    "INSERT OR IGNORE INTO parametros_sistema (clave, valor) " +
+                            "VALUES ('qr.clave_firma', lower(hex(randomblob(32))))"),
+
+            new Migracion(6, "Resumen diario de asistencias por estudiante, asignatura y estado",
+                    CREATE_RESUMEN_ASISTENCIAS,
+                    // Totales por rango de días sin pasar por cada estudiante (estadísticas generales)
+                    "CREATE INDEX IF NOT EXISTS idx_resumen_asistencias_dia " +
+                            "ON resumen_asistencias(dia, estado, total)",
+                    TRIGGER_RESUMEN_INSERT,
+                    TRIGGER_RESUMEN_DELETE,
+                    TRIGGER_RESUMEN_UPDATE,
+                    // Carga inicial con el historial existente
+                    "INSERT INTO resumen_asistencias (estudiante_id, dia, asignatura_id, estado, total) " +
+                            "SELECT estudiante_id, substr(fecha_hora, 1, 10), IFNULL(asignatura_id, 0), " +
+                            "IFNULL(estado, ''), COUNT(*) FROM asistencias " +
+                            "GROUP BY estudiante_id, substr(fecha_hora, 1, 10), IFNULL(asignatura_id, 0), IFNULL(estado, '')",
+                    "ANALYZE"),
+
+            new Migracion(7, "Índice de asistencias por docente para los filtros de la tabla",
+                    // Filtro por docente paginado por (fecha_hora, id)
+                    "CREATE INDEX IF NOT EXISTS idx_asistencias_docente_fecha " +
+                            "ON asistencias(docente_id, fecha_hora)",
+                    "ANALYZE"),
+
+            new Migracion(8, "Índices de texto completo para buscar estudiantes, docentes y asignaturas",
+                    concatenar(
+                            indiceTextoCompleto("estudiantes", "nombre", "apellido", "codigo_estudiante", "dni"),
+                            indiceTextoCompleto("docentes", "nombre", "apellido", "codigo_docente", "dni"),
+                            indiceTextoCompleto("asignaturas", "nombre", "codigo_asignatura")))
+    );
+
+    /**
+     * Aplica las migraciones pendientes sobre la conexión indicada.
+     *
+     * @return versión del esquema tras la migración
+     */
+    int migrar(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(CREATE_SCHEMA_VERSION);
+        }
+
+        int versionActual = obtenerVersionActual(conn);
+        int versionFinal = versionActual;
+
+        for (Migracion migracion : MIGRACIONES) {
+            if (migracion.version <= versionActual) {
+                continue;
+            }
+            aplicar(conn, migracion);
+            versionFinal = migracion.version;
+        }
+
+        if (versionFinal != versionActual) {
+            log.info("✅ Esquema migrado de la versión " + versionActual + " a la " + versionFinal);
+        }
+        return versionFinal;
+    }
+
+    private int obtenerVersionActual(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private void aplicar(Connection conn, Migracion migracion) throws SQLException {
+        log.info("🔄 Aplicando migración " + migracion.version + ": " + migracion.descripcion);
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : migracion.sentencias) {
+                stmt.execute(sql);
+            }
+            stmt.execute("INSERT INTO schema_version (version, descripcion) VALUES (" +
+                    migracion.version + ", '" + migracion.descripcion.replace("'", "''") + "')");
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Error en la migración " + migracion.version + " (" +
+                    migracion.descripcion + "): " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Paso de migración: versión, descripción y sentencias DDL/DML a ejecutar
+     */
+    private static final class Migracion {
+        private final int version;
+        private final String descripcion;
+        private final String[] sentencias;
+
+        private Migracion(int version, String descripcion, String... sentencias) {
+            this.version = version;
+            this.descripcion = descripcion;
+            this.sentencias = sentencias;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.union.asistencia.dao;
+
+import lombok.extern.java.Log;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Caché LRU de sentencias preparadas asociada a una conexión física del pool.
+ * La clave es el texto SQL (más el indicador de claves generadas); al cerrar la
+ * sentencia desde el DAO solo se limpian sus parámetros y resultados, de modo
+ * que la siguiente llamada con el mismo SQL no vuelve a compilarlo en SQLite.
+ */
+@Log
+final class StatementCache {
+
+    private final Connection fisica;
+    private final int capacidad;
+    private final LinkedHashMap<String, SentenciaCacheada> sentencias;
+
+    // ==================== MÉTRICAS ====================
+    private long aciertos;
+    private long fallos;
+
+    StatementCache(Connection fisica, int capacidad) {
+        this.fisica = fisica;
+        this.capacidad = capacidad;
+        // accessOrder = true -> el orden de iteración es LRU
+        this.sentencias = new LinkedHashMap<>(capacidad, 0.75f, true);
+    }
+
+    /**
+     * Devuelve la sentencia cacheada para el SQL indicado, preparándola solo la
+     * primera vez. Devuelve null si la misma sentencia ya está en uso dentro del
+     * préstamo actual; en ese caso el llamador debe preparar una independiente.
+     */
+    PreparedStatement preparar(String sql, int clavesGeneradas) throws SQLException {
+        String clave = clavesGeneradas == Statement.RETURN_GENERATED_KEYS ? "K|" + sql : sql;
+
+        SentenciaCacheada cacheada = sentencias.get(clave);
+        if (cacheada != null && !cacheada.real.isClosed()) {
+            if (cacheada.enUso) {
+                return null;
+            }
+            aciertos++;
+            cacheada.enUso = true;
+            return cacheada.proxy;
+        }
+
+        fallos++;
+        PreparedStatement real = clavesGeneradas == Statement.RETURN_GENERATED_KEYS
+                ? fisica.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                : fisica.prepareStatement(sql);
+        cacheada = new SentenciaCacheada(real);
+        cacheada.enUso = true;
+        sentencias.put(clave, cacheada);
+        recortar();
+        return cacheada.proxy;
+    }
+
+    /**
+     * Expulsa las sentencias libres menos usadas hasta volver a la capacidad. Las que el
+     * DAO está usando se saltan (no solo la más antigua); si todas están en uso el
+     * exceso se recorta al devolver la conexión.
+     */
+    private void recortar() {
+        Iterator<SentenciaCacheada> it = sentencias.values().iterator();
+        while (sentencias.size() > capacidad && it.hasNext()) {
+            SentenciaCacheada cacheada = it.next();
+            if (!cacheada.enUso) {
+                cacheada.cerrarFisica();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Libera las sentencias que el DAO dejó abiertas al devolver la conexión.
+     */
+    void liberarTodas() {
+        for (SentenciaCacheada cacheada : sentencias.values()) {
+            if (cacheada.enUso) {
+                cacheada.liberar();
+            }
+        }
+        recortar();
+    }
+
+    /**
+     * Cierra físicamente todas las sentencias; se usa al descartar la conexión.
+     */
+    void cerrarTodas() {
+        for (SentenciaCacheada cacheada : sentencias.values()) {
+            cacheada.cerrarFisica();
+        }
+        sentencias.clear();
+    }
+
+    int getTamanio() { return sentencias.size(); }
+    long getAciertos() { return aciertos; }
+    long getFallos() { return fallos; }
+
+    /**
+     * Envoltura de una sentencia real: close() la devuelve a la caché tras
+     * cerrar los ResultSet abiertos y limpiar los parámetros enlazados.
+     */
+    private static final class SentenciaCacheada implements InvocationHandler {
+        private final PreparedStatement real;
+        private final PreparedStatement proxy;
+        private final List<ResultSet> resultados = new ArrayList<>(1);
+        private boolean enUso;
+
+        private SentenciaCacheada(PreparedStatement real) {
+            this.real = real;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                    StatementCache.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    this);
+        }
+
+        @Override
+        public Object invoke(Object p, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    liberar();
+                    return null;
+                case "isClosed":
+                    return !enUso || real.isClosed();
+                case "equals":
+                    return p == args[0];
+                case "hashCode":
+                    return System.identityHashCode(p);
+                case "toString":
+                    return "SentenciaCacheada[" + real + "]";
+                default:
+                    break;
+            }
+
+            if (!enUso) {
+                throw new SQLException("La sentencia ya fue cerrada");
+            }
+
+            Object resultado;
+            try {
+                resultado = method.invoke(real, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (resultado instanceof ResultSet) {
+                resultados.add((ResultSet) resultado);
+            }
+            return resultado;
+        }
+
+        private void liberar() {
+            if (!enUso) {
+                return;
+            }
+            enUso = false;
+            try {
+                for (ResultSet rs : resultados) {
+                    rs.close();
+                }
+                resultados.clear();
+                real.clearParameters();
+                real.clearBatch();
+            } catch (SQLException e) {
+                log.warning("⚠️ Error al limpiar sentencia cacheada: " + e.getMessage());
+                cerrarFisica();
+            }
+        }
+
+        private void cerrarFisica() {
+            enUso = false;
+            resultados.clear();
+            try {
+                real.close();
+            } catch (SQLException e) {
+                log.warning("⚠️ Error al cerrar sentencia cacheada: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -9,6 +9,7 @@ import java.time.LocalDateTime;
 @Builder
 public class Evento {
     private Integer id;
+    private String codigoEvento; // Código impreso en los QR UPeU-ASIST (único)
     private String nombre;
     private String tipo; // ACADEMICO, CULTURAL, DEPORTIVO, INSTITUCIONAL
     private String descripcion;
@@ -0,0 +1,43 @@
+package com.union.asistencia.model;
+
+import lombok.*;
+import java.time.LocalDate;
+
+/**
+ * Criterios de búsqueda de asistencias. Cada campo nulo (o vacío) no filtra; los que
+ * tienen valor se combinan con AND y AsistenciaDAO los traduce a condiciones SQL.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FiltroAsistencia {
+    // ==================== RANGO DE FECHAS (inclusivo) ====================
+    /** Primer día incluido */
+    private LocalDate desde;
+
+    /** Último día incluido */
+    private LocalDate hasta;
+
+    // ==================== RELACIONES ====================
+    private Integer asignaturaId;
+    private Integer docenteId;
+    private Integer estudianteId;
+
+    // ==================== ESTADO Y TIPO DE REGISTRO ====================
+    /** PRESENTE, AUSENTE, TARDANZA, JUSTIFICADO */
+    private String estado;
+
+    /** MANUAL, QR, BIOMETRICO */
+    private String tipoRegistro;
+
+    /**
+     * Indica si el filtro no tiene ningún criterio (equivale a traer todo).
+     */
+    public boolean estaVacio() {
+        return desde == null && hasta == null
+                && asignaturaId == null && docenteId == null && estudianteId == null
+                && (estado == null || estado.isBlank())
+                && (tipoRegistro == null || tipoRegistro.isBlank());
+    }
+}
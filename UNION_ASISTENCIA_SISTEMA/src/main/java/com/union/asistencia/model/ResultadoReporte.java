@@ -0,0 +1,191 @@
+package com.union.asistencia.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado tabular de un reporte guardado por columnas: un esquema (nombre y tipo de
+ * cada columna, en el orden en que se muestran) y un arreglo primitivo por columna.
+ *
+ * Los valores se guardan sin formatear; el texto que ve el usuario (porcentajes con
+ * dos decimales, etc.) se arma solo al pintar o exportar cada celda con
+ * {@link #formatear(int, int)}.
+ */
+public final class ResultadoReporte {
+
+    public enum TipoColumna {
+        TEXTO,
+        ENTERO,
+        /** double en escala 0-100, se muestra como "12.34%" */
+        PORCENTAJE
+    }
+
+    public static final class Columna {
+        private final String nombre;
+        private final TipoColumna tipo;
+
+        private Columna(String nombre, TipoColumna tipo) {
+            this.nombre = nombre;
+            this.tipo = tipo;
+        }
+
+        public String getNombre() { return nombre; }
+        public TipoColumna getTipo() { return tipo; }
+    }
+
+    private static final ResultadoReporte VACIO = new ResultadoReporte(Collections.emptyList(), new Object[0], 0);
+
+    private final List<Columna> columnas;
+    /** Por columna: String[], int[] o double[] según su tipo */
+    private final Object[] datos;
+    private final int filas;
+
+    private ResultadoReporte(List<Columna> columnas, Object[] datos, int filas) {
+        this.columnas = columnas;
+        this.datos = datos;
+        this.filas = filas;
+    }
+
+    public static ResultadoReporte vacio() {
+        return VACIO;
+    }
+
+    public static Constructor constructor() {
+        return new Constructor();
+    }
+
+    public List<Columna> getColumnas() { return columnas; }
+    public int getFilas() { return filas; }
+    public boolean isEmpty() { return filas == 0; }
+
+    public int indiceDe(String nombreColumna) {
+        for (int i = 0; i < columnas.size(); i++) {
+            if (columnas.get(i).nombre.equals(nombreColumna)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Columna inexistente: " + nombreColumna);
+    }
+
+    public String getTexto(int columna, int fila) {
+        return ((String[]) datos[columna])[fila];
+    }
+
+    public int getEntero(int columna, int fila) {
+        return ((int[]) datos[columna])[fila];
+    }
+
+    public double getDecimal(int columna, int fila) {
+        return ((double[]) datos[columna])[fila];
+    }
+
+    /**
+     * Texto de la celda tal como se muestra en la tabla y en la exportación.
+     */
+    public String formatear(int columna, int fila) {
+        switch (columnas.get(columna).tipo) {
+            case ENTERO:
+                return Integer.toString(getEntero(columna, fila));
+            case PORCENTAJE:
+                return String.format("%.2f%%", getDecimal(columna, fila));
+            default:
+                String texto = getTexto(columna, fila);
+                return texto != null ? texto : "";
+        }
+    }
+
+    /**
+     * Arma el resultado fila por fila: se declaran las columnas, luego por cada fila se
+     * llama a {@link #nuevaFila()} y se asignan sus valores por índice de columna.
+     */
+    public static final class Constructor {
+        private static final int CAPACIDAD_INICIAL = 64;
+
+        private final List<Columna> columnas = new ArrayList<>();
+        private Object[] datos;
+        private int capacidad = CAPACIDAD_INICIAL;
+        private int filas;
+
+        private Constructor() {
+        }
+
+        public Constructor texto(String nombre) { return columna(nombre, TipoColumna.TEXTO); }
+        public Constructor entero(String nombre) { return columna(nombre, TipoColumna.ENTERO); }
+        public Constructor porcentaje(String nombre) { return columna(nombre, TipoColumna.PORCENTAJE); }
+
+        private Constructor columna(String nombre, TipoColumna tipo) {
+            if (datos != null) {
+                throw new IllegalStateException("Las columnas se declaran antes de la primera fila");
+            }
+            columnas.add(new Columna(nombre, tipo));
+            return this;
+        }
+
+        /**
+         * Agrega una fila con valores por defecto (null / 0) y la deja como fila actual.
+         */
+        public Constructor nuevaFila() {
+            if (datos == null) {
+                datos = new Object[columnas.size()];
+                for (int c = 0; c < datos.length; c++) {
+                    datos[c] = crearArreglo(columnas.get(c).tipo, capacidad);
+                }
+            } else if (filas == capacidad) {
+                capacidad *= 2;
+                for (int c = 0; c < datos.length; c++) {
+                    datos[c] = redimensionar(datos[c], capacidad);
+                }
+            }
+            filas++;
+            return this;
+        }
+
+        public Constructor texto(int columna, String valor) {
+            ((String[]) datos[columna])[filas - 1] = valor;
+            return this;
+        }
+
+        public Constructor entero(int columna, int valor) {
+            ((int[]) datos[columna])[filas - 1] = valor;
+            return this;
+        }
+
+        public Constructor porcentaje(int columna, double valor) {
+            ((double[]) datos[columna])[filas - 1] = valor;
+            return this;
+        }
+
+        public ResultadoReporte construir() {
+            Object[] finales = new Object[columnas.size()];
+            for (int c = 0; c < finales.length; c++) {
+                finales[c] = datos == null
+                        ? crearArreglo(columnas.get(c).tipo, 0)
+                        : redimensionar(datos[c], filas);
+            }
+            return new ResultadoReporte(Collections.unmodifiableList(new ArrayList<>(columnas)), finales, filas);
+        }
+
+        private static Object crearArreglo(TipoColumna tipo, int tamanio) {
+            switch (tipo) {
+                case ENTERO:
+                    return new int[tamanio];
+                case PORCENTAJE:
+                    return new double[tamanio];
+                default:
+                    return new String[tamanio];
+            }
+        }
+
+        private static Object redimensionar(Object arreglo, int tamanio) {
+            if (arreglo instanceof int[]) {
+                return Arrays.copyOf((int[]) arreglo, tamanio);
+            }
+            if (arreglo instanceof double[]) {
+                return Arrays.copyOf((double[]) arreglo, tamanio);
+            }
+            return Arrays.copyOf((String[]) arreglo, tamanio);
+        }
+    }
+}
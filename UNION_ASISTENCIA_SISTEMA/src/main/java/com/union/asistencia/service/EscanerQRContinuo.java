@@ -0,0 +1,169 @@
+package com.union.asistencia.service;
+
+import com.union.asistencia.util.FrameSource;
+import com.union.asistencia.util.QRReader;
+import lombok.extern.java.Log;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Escaneo continuo de códigos QR en un hilo de fondo.
+ * Toma fotogramas de un {@link FrameSource}, omite los que ya se decodificaron,
+ * descarta lecturas repetidas del mismo código dentro de la ventana de rebote y
+ * entrega cada código nuevo al consumidor indicado.
+ *
+ * El consumidor se invoca en el hilo del escáner: si necesita tocar la interfaz
+ * debe usar Platform.runLater.
+ */
+@Log
+public class EscanerQRContinuo {
+
+    /** Cantidad de ids de fotogramas recordados para no decodificarlos otra vez */
+    private static final int MAX_FOTOGRAMAS_VISTOS = 512;
+
+    private final FrameSource fuente;
+    private final Consumer<String> alDecodificar;
+    private final long reboteNanos;
+
+    /** id de fotograma -> resultado (o "" si no tenía QR), en orden LRU */
+    private final Map<String, String> fotogramasVistos = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_FOTOGRAMAS_VISTOS;
+        }
+    };
+    /** código -> instante (nanoTime) de la última vez que se entregó */
+    private final Map<String, Long> ultimasEntregas = new LinkedHashMap<>();
+
+    private volatile Thread hilo;
+    private volatile boolean activo;
+
+    // ==================== MÉTRICAS ====================
+    private final AtomicLong fotogramas = new AtomicLong();
+    private final AtomicLong omitidos = new AtomicLong();
+    private final AtomicLong decodificados = new AtomicLong();
+    private final AtomicLong entregados = new AtomicLong();
+    private volatile long inicioNanos;
+
+    /**
+     * @param fuente Fuente de fotogramas
+     * @param alDecodificar Recibe cada código QR nuevo (fuera del hilo de JavaFX)
+     * @param reboteMs Tiempo durante el cual se ignoran lecturas repetidas del mismo código
+     */
+    public EscanerQRContinuo(FrameSource fuente, Consumer<String> alDecodificar, long reboteMs) {
+        this.fuente = fuente;
+        this.alDecodificar = alDecodificar;
+        this.reboteNanos = TimeUnit.MILLISECONDS.toNanos(reboteMs);
+    }
+
+    public synchronized void iniciar() {
+        if (activo) {
+            return;
+        }
+        activo = true;
+        inicioNanos = System.nanoTime();
+        hilo = new Thread(this::ejecutar, "qr-escaner-continuo");
+        hilo.setDaemon(true);
+        hilo.start();
+        log.info("📷 Escaneo continuo iniciado: " + fuente.getDescripcion());
+    }
+
+    public synchronized void detener() {
+        activo = false;
+        Thread actual = hilo;
+        if (actual != null) {
+            actual.interrupt();
+        }
+        fuente.close();
+    }
+
+    public boolean isActivo() { return activo; }
+    public long getFotogramas() { return fotogramas.get(); }
+    public long getOmitidos() { return omitidos.get(); }
+    public long getDecodificados() { return decodificados.get(); }
+    public long getEntregados() { return entregados.get(); }
+
+    /**
+     * Fotogramas procesados por segundo desde el inicio del escaneo.
+     */
+    public double getFotogramasPorSegundo() {
+        long transcurrido = System.nanoTime() - inicioNanos;
+        return transcurrido > 0 ? fotogramas.get() * 1e9 / transcurrido : 0;
+    }
+
+    // ==================== HILO DEL ESCÁNER ====================
+
+    private void ejecutar() {
+        try {
+            while (activo) {
+                FrameSource.Fotograma fotograma = fuente.siguiente(200);
+                if (fotograma == null) {
+                    if (fuente.agotada()) {
+                        break;
+                    }
+                    continue;
+                }
+                procesar(fotograma);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.severe("❌ Error en el escaneo continuo: " + e.getMessage());
+        } finally {
+            activo = false;
+            log.info(String.format("🛑 Escaneo continuo finalizado - fotogramas: %d, omitidos: %d, códigos: %d, entregados: %d, %.1f fps",
+                    fotogramas.get(), omitidos.get(), decodificados.get(), entregados.get(), getFotogramasPorSegundo()));
+        }
+    }
+
+    private void procesar(FrameSource.Fotograma fotograma) {
+        fotogramas.incrementAndGet();
+
+        String texto = fotogramasVistos.get(fotograma.getId());
+        if (texto != null) {
+            // Mismo contenido ya decodificado: no se repite el trabajo de ZXing
+            omitidos.incrementAndGet();
+        } else {
+            texto = QRReader.leerQR(fotograma.getImagen());
+            fotogramasVistos.put(fotograma.getId(), texto != null ? texto : "");
+        }
+        if (texto == null || texto.isEmpty()) {
+            return;
+        }
+        decodificados.incrementAndGet();
+
+        long ahora = System.nanoTime();
+        Long ultima = ultimasEntregas.get(texto);
+        if (ultima != null && ahora - ultima < reboteNanos) {
+            return;
+        }
+        // remove + put para que quede al final del orden de inserción
+        ultimasEntregas.remove(texto);
+        ultimasEntregas.put(texto, ahora);
+        purgarEntregasVencidas(ahora);
+
+        entregados.incrementAndGet();
+        try {
+            alDecodificar.accept(texto);
+        } catch (RuntimeException e) {
+            log.warning("⚠️ Error procesando código escaneado: " + e.getMessage());
+        }
+    }
+
+    private void purgarEntregasVencidas(long ahora) {
+        Iterator<Long> it = ultimasEntregas.values().iterator();
+        while (it.hasNext()) {
+            if (ahora - it.next() >= reboteNanos) {
+                it.remove();
+            } else {
+                // Orden de inserción: el resto es más reciente
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.union.asistencia.service;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.borders.DashedBorder;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Image;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.HorizontalAlignment;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import com.itextpdf.layout.properties.VerticalAlignment;
+import com.union.asistencia.dao.EventoDAO;
+import com.union.asistencia.model.Evento;
+import com.union.asistencia.model.ParticipanteEvento;
+import com.union.asistencia.util.CacheImagenesQR;
+import lombok.extern.java.Log;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Genera en PDF las hojas de gafetes de los participantes de un evento: varios gafetes
+ * por hoja A4, cada uno con nombre, código y QR.
+ *
+ * Los participantes se leen por bloques (paginación por id) y los QR de cada bloque
+ * se codifican en paralelo mientras se escribe el bloque anterior. La tabla usa el
+ * modo de tabla grande de iText y el documento vacía cada página al completarla, así
+ * la memoria usada depende del tamaño del bloque y no de la cantidad de participantes.
+ */
+@Log
+public class GeneradorGafetesPDF {
+
+    private static final int COLUMNAS = 2;
+    private static final int FILAS = 4;
+    private static final int GAFETES_POR_HOJA = COLUMNAS * FILAS;
+    /** Participantes leídos y codificados por bloque (múltiplo de los gafetes por hoja) */
+    private static final int BLOQUE = GAFETES_POR_HOJA * 25;
+
+    private static final float MARGEN = 24f;
+    private static final float LADO_QR = 110f;
+    private static final float ALTO_GAFETE = (PageSize.A4.getHeight() - 2 * MARGEN) / FILAS;
+
+    private final EventoDAO eventoDAO;
+    private final int paralelismo;
+
+    public GeneradorGafetesPDF() {
+        this(new EventoDAO(), Runtime.getRuntime().availableProcessors());
+    }
+
+    public GeneradorGafetesPDF(EventoDAO eventoDAO, int paralelismo) {
+        this.eventoDAO = eventoDAO;
+        this.paralelismo = Math.max(1, paralelismo);
+    }
+
+    /**
+     * Escribe el PDF de gafetes del evento en el archivo indicado. Si algo falla a mitad
+     * de camino (p. ej. la lectura de una página de participantes) se borra el archivo
+     * parcial y se propaga el error, en lugar de dejar un PDF incompleto.
+     */
+    public Resumen generar(Evento evento, Path destino) throws IOException {
+        try {
+            return escribir(evento, destino);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(destino);
+            } catch (IOException borrado) {
+                e.addSuppressed(borrado);
+            }
+            throw e;
+        }
+    }
+
+    private Resumen escribir(Evento evento, Path destino) throws IOException {
+        long inicio = System.nanoTime();
+        int gafetes = 0;
+
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try (PdfDocument pdf = new PdfDocument(new PdfWriter(destino.toFile()));
+             Document documento = new Document(pdf, PageSize.A4, true)) {
+
+            documento.setMargins(MARGEN, MARGEN, MARGEN, MARGEN);
+            // Tabla grande: las filas ya agregadas se escriben y liberan en cada flush()
+            Table tabla = new Table(UnitValue.createPercentArray(COLUMNAS), true).useAllAvailableWidth();
+            documento.add(tabla);
+
+            List<ParticipanteEvento> pagina = leerPagina(evento, 0);
+            Future<List<Gafete>> enCurso = pagina.isEmpty() ? null : codificar(pagina, pool);
+
+            while (enCurso != null) {
+                List<Gafete> listos = esperar(enCurso);
+                enCurso = null;
+
+                // Se lee y codifica el bloque siguiente mientras se escribe el actual
+                if (pagina.size() == BLOQUE) {
+                    int ultimoId = pagina.get(pagina.size() - 1).getId();
+                    pagina = leerPagina(evento, ultimoId);
+                    if (!pagina.isEmpty()) {
+                        enCurso = codificar(pagina, pool);
+                    }
+                }
+
+                for (Gafete gafete : listos) {
+                    tabla.addCell(crearCelda(evento, gafete));
+                }
+                gafetes += listos.size();
+                tabla.flush();
+            }
+
+            // Completar la última fila para que las líneas de corte queden cerradas
+            for (int i = gafetes % COLUMNAS; i > 0 && i < COLUMNAS; i++) {
+                tabla.addCell(new Cell().setHeight(ALTO_GAFETE).setBorder(new DashedBorder(0.5f)));
+            }
+            tabla.complete();
+        } finally {
+            pool.shutdown();
+        }
+
+        Resumen resumen = new Resumen(gafetes, System.nanoTime() - inicio);
+        log.info(String.format("✅ Gafetes generados: %d en %d hojas, %d ms (%.0f gafetes/s) -> %s",
+                resumen.getGafetes(), resumen.getHojas(), resumen.getMs(), resumen.getGafetesPorSegundo(), destino));
+        return resumen;
+    }
+
+    private List<ParticipanteEvento> leerPagina(Evento evento, int despuesDeId) throws IOException {
+        try {
+            return eventoDAO.obtenerParticipantesPagina(evento.getId(), despuesDeId, BLOQUE);
+        } catch (SQLException e) {
+            throw new IOException("No se pudieron leer los participantes del evento: " + e.getMessage(), e);
+        }
+    }
+
+    // ==================== CODIFICACIÓN EN PARALELO ====================
+
+    private Future<List<Gafete>> codificar(List<ParticipanteEvento> participantes, ForkJoinPool pool) {
+        // El parallelStream lanzado desde una tarea del pool usa ese pool y no el común
+        return pool.submit(() -> participantes.parallelStream()
+                .map(this::prepararGafete)
+                .collect(Collectors.toList()));
+    }
+
+    private Gafete prepararGafete(ParticipanteEvento participante) {
+        ImageData qr = null;
+        if (participante.getCodigoQR() != null && !participante.getCodigoQR().isBlank()) {
+            try {
+                qr = aImagenPDF(CacheImagenesQR.getInstance().obtenerMatriz(participante.getCodigoQR()));
+            } catch (WriterException e) {
+                log.warning("⚠️ No se pudo codificar el QR del participante " + participante.getId() + ": " + e.getMessage());
+            }
+        }
+        return new Gafete(participante, qr);
+    }
+
+    /**
+     * Imagen en escala de grises de 1 bit a resolución de módulo (0 = negro), sin pasar
+     * por PNG. El visor la amplía sin suavizado.
+     */
+    private static ImageData aImagenPDF(BitMatrix matriz) {
+        int ancho = matriz.getWidth();
+        int alto = matriz.getHeight();
+        int bytesPorFila = (ancho + 7) / 8;
+        byte[] datos = new byte[bytesPorFila * alto];
+
+        BitArray fila = new BitArray(ancho);
+        for (int y = 0; y < alto; y++) {
+            fila = matriz.getRow(y, fila);
+            int base = y * bytesPorFila;
+            for (int x = 0; x < ancho; x++) {
+                if (!fila.get(x)) {
+                    datos[base + (x >> 3)] |= (byte) (0x80 >>> (x & 7));
+                }
+            }
+        }
+        return ImageDataFactory.create(ancho, alto, 1, 1, datos, null);
+    }
+
+    private static <T> T esperar(Future<T> futuro) throws IOException {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Generación de gafetes interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error codificando QR de gafetes: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // ==================== DISEÑO DEL GAFETE ====================
+
+    private Cell crearCelda(Evento evento, Gafete gafete) {
+        ParticipanteEvento participante = gafete.participante;
+
+        Cell celda = new Cell()
+                .setHeight(ALTO_GAFETE)
+                .setPadding(8)
+                .setBorder(new DashedBorder(0.5f))
+                .setTextAlignment(TextAlignment.CENTER)
+                .setVerticalAlignment(VerticalAlignment.MIDDLE);
+
+        celda.add(new Paragraph(evento.getNombre() != null ? evento.getNombre() : "").setFontSize(9));
+        if (gafete.qr != null) {
+            celda.add(new Image(gafete.qr)
+                    .scaleToFit(LADO_QR, LADO_QR)
+                    .setHorizontalAlignment(HorizontalAlignment.CENTER));
+        }
+        celda.add(new Paragraph(participante.getNombreParticipante()).setBold().setFontSize(12));
+        celda.add(new Paragraph(codigoParticipante(participante)).setFontSize(9));
+        return celda;
+    }
+
+    private static String codigoParticipante(ParticipanteEvento participante) {
+        if (participante.getEstudiante() != null && participante.getEstudiante().getCodigoEstudiante() != null) {
+            return "Estudiante " + participante.getEstudiante().getCodigoEstudiante();
+        }
+        if (participante.getDocente() != null && participante.getDocente().getCodigoDocente() != null) {
+            return "Docente " + participante.getDocente().getCodigoDocente();
+        }
+        return participante.getTipoParticipante() != null ? participante.getTipoParticipante() : "";
+    }
+
+    // ==================== RESULTADOS ====================
+
+    private static final class Gafete {
+        private final ParticipanteEvento participante;
+        private final ImageData qr;
+
+        private Gafete(ParticipanteEvento participante, ImageData qr) {
+            this.participante = participante;
+            this.qr = qr;
+        }
+    }
+
+    public static final class Resumen {
+        private final int gafetes;
+        private final long nanos;
+
+        private Resumen(int gafetes, long nanos) {
+            this.gafetes = gafetes;
+            this.nanos = nanos;
+        }
+
+        public int getGafetes() { return gafetes; }
+        public int getHojas() { return (gafetes + GAFETES_POR_HOJA - 1) / GAFETES_POR_HOJA; }
+        public long getMs() { return TimeUnit.NANOSECONDS.toMillis(nanos); }
+
+        public double getGafetesPorSegundo() {
+            return nanos > 0 ? gafetes * 1e9 / nanos : 0;
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.union.asistencia.service;
+
+import com.union.asistencia.dao.AsistenciaEventoDAO;
+import com.union.asistencia.dao.ResultadoRegistro;
+import com.union.asistencia.util.DirectorioFrameSource;
+import com.union.asistencia.util.QRReader;
+import lombok.extern.java.Log;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Importación por lotes de capturas de códigos QR de entrada a evento.
+ *
+ * Recorre una carpeta (con subcarpetas), decodifica las imágenes en paralelo en un
+ * ForkJoinPool del tamaño de los núcleos disponibles y registra las entradas válidas
+ * con las mismas reglas que el escaneo manual. Los registros se envían a la cola de
+ * escritura en bloques, que los confirma en transacciones agrupadas.
+ *
+ * La vigencia del QR se evalúa contra la fecha de modificación de cada imagen (el
+ * momento de la captura), no contra la hora de la importación.
+ */
+@Log
+public class ImportadorQRLote {
+
+    /** Registros en vuelo por bloque; debe ser menor que la capacidad de la cola de escritura */
+    private static final int BLOQUE_REGISTRO = 500;
+
+    public enum EstadoArchivo {
+        REGISTRADO("Registrado"),
+        DUPLICADO("Duplicado"),
+        EXPIRADO("QR expirado"),
+        ESTUDIANTE_DESCONOCIDO("Estudiante desconocido"),
+        EVENTO_NO_VALIDO("Evento no válido"),
+        FORMATO_INVALIDO("Formato inválido"),
+        FIRMA_INVALIDA("Firma inválida"),
+        SIN_QR("Sin QR legible"),
+        ERROR("Error");
+
+        private final String descripcion;
+
+        EstadoArchivo(String descripcion) {
+            this.descripcion = descripcion;
+        }
+
+        public String getDescripcion() { return descripcion; }
+    }
+
+    private final ValidadorEntradaEvento validador;
+    private final AsistenciaEventoDAO asistenciaEventoDAO;
+    private final int paralelismo;
+
+    public ImportadorQRLote() {
+        this(new ValidadorEntradaEvento(), new AsistenciaEventoDAO(), Runtime.getRuntime().availableProcessors());
+    }
+
+    public ImportadorQRLote(ValidadorEntradaEvento validador, AsistenciaEventoDAO asistenciaEventoDAO, int paralelismo) {
+        this.validador = validador;
+        this.asistenciaEventoDAO = asistenciaEventoDAO;
+        this.paralelismo = Math.max(1, paralelismo);
+    }
+
+    /**
+     * Importa todas las imágenes de la carpeta y devuelve el resultado por archivo.
+     */
+    public Reporte importar(Path directorio) throws IOException {
+        long inicio = System.nanoTime();
+
+        List<Path> archivos;
+        try (Stream<Path> stream = Files.walk(directorio)) {
+            archivos = stream
+                    .filter(Files::isRegularFile)
+                    .filter(DirectorioFrameSource::esImagen)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        log.info("📥 Importando " + archivos.size() + " imágenes de " + directorio + " con " + paralelismo + " hilos");
+
+        // 1) Decodificación en paralelo (la parte costosa: lectura de imagen + ZXing)
+        List<Lectura> lecturas = decodificarEnParalelo(archivos);
+        long finDecodificacion = System.nanoTime();
+
+        // 2) Validación y deduplicación en orden de archivo, 3) registro por bloques
+        List<ResultadoArchivo> resultados = registrar(lecturas);
+        long fin = System.nanoTime();
+
+        Reporte reporte = new Reporte(resultados, paralelismo,
+                finDecodificacion - inicio, fin - finDecodificacion);
+        log.info("✅ Importación finalizada: " + reporte.getResumen().replace("\n", " | "));
+        return reporte;
+    }
+
+    // ==================== DECODIFICACIÓN ====================
+
+    private List<Lectura> decodificarEnParalelo(List<Path> archivos) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            // El parallelStream lanzado desde una tarea del pool usa ese pool y no el común
+            return pool.submit(() -> archivos.parallelStream()
+                            .map(this::leer)
+                            .collect(Collectors.toList()))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Importación interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error decodificando imágenes: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Lectura leer(Path archivo) {
+        try {
+            long capturaMs = Files.getLastModifiedTime(archivo).toMillis();
+            BufferedImage imagen = ImageIO.read(archivo.toFile());
+            if (imagen == null) {
+                return new Lectura(archivo, null, capturaMs, "Formato de imagen no soportado");
+            }
+            return new Lectura(archivo, QRReader.leerQR(imagen), capturaMs, null);
+        } catch (IOException | RuntimeException e) {
+            return new Lectura(archivo, null, 0, e.getMessage());
+        }
+    }
+
+    // ==================== VALIDACIÓN Y REGISTRO ====================
+
+    private List<ResultadoArchivo> registrar(List<Lectura> lecturas) {
+        ResultadoArchivo[] resultados = new ResultadoArchivo[lecturas.size()];
+        // estudiante:evento -> archivo que ya lo registró en esta importación
+        Map<String, Path> vistos = new HashMap<>();
+        List<Integer> pendientes = new ArrayList<>();
+        List<ValidadorEntradaEvento.Validacion> validaciones = new ArrayList<>(Collections.nCopies(lecturas.size(), null));
+
+        for (int i = 0; i < lecturas.size(); i++) {
+            Lectura lectura = lecturas.get(i);
+            if (lectura.error != null) {
+                resultados[i] = new ResultadoArchivo(lectura.archivo, EstadoArchivo.ERROR, null, lectura.error);
+                continue;
+            }
+            if (lectura.texto == null) {
+                resultados[i] = new ResultadoArchivo(lectura.archivo, EstadoArchivo.SIN_QR, null, "");
+                continue;
+            }
+
+            ValidadorEntradaEvento.Validacion validacion = validador.validar(lectura.texto, lectura.capturaMs);
+            if (!validacion.esValida()) {
+                resultados[i] = new ResultadoArchivo(lectura.archivo, mapearEstado(validacion.getEstado()),
+                        lectura.texto, describir(validacion));
+                continue;
+            }
+
+            String clave = validacion.getEstudiante().getId() + ":" + validacion.getEvento().getId();
+            Path anterior = vistos.putIfAbsent(clave, lectura.archivo);
+            if (anterior != null) {
+                resultados[i] = new ResultadoArchivo(lectura.archivo, EstadoArchivo.DUPLICADO, lectura.texto,
+                        "Repetido en esta importación (" + anterior.getFileName() + ")");
+                continue;
+            }
+            validaciones.set(i, validacion);
+            pendientes.add(i);
+        }
+
+        for (int desde = 0; desde < pendientes.size(); desde += BLOQUE_REGISTRO) {
+            List<Integer> bloque = pendientes.subList(desde, Math.min(desde + BLOQUE_REGISTRO, pendientes.size()));
+            registrarBloque(bloque, lecturas, validaciones, resultados);
+        }
+
+        List<ResultadoArchivo> lista = new ArrayList<>(resultados.length);
+        Collections.addAll(lista, resultados);
+        return lista;
+    }
+
+    /**
+     * Encola el bloque completo antes de esperar: la cola de escritura agrupa los
+     * INSERT en pocas transacciones en lugar de confirmar fila por fila.
+     */
+    private void registrarBloque(List<Integer> bloque, List<Lectura> lecturas,
+                                 List<ValidadorEntradaEvento.Validacion> validaciones,
+                                 ResultadoArchivo[] resultados) {
+        List<CompletableFuture<ResultadoRegistro>> futuros = new ArrayList<>(bloque.size());
+        for (int i : bloque) {
+            ValidadorEntradaEvento.Validacion v = validaciones.get(i);
+            futuros.add(asistenciaEventoDAO.registrarEntradaEventoAsync(
+                    v.getEstudiante().getId(), v.getEvento().getId(), "QR_LOTE"));
+        }
+
+        for (int k = 0; k < bloque.size(); k++) {
+            int i = bloque.get(k);
+            Lectura lectura = lecturas.get(i);
+            ValidadorEntradaEvento.Validacion v = validaciones.get(i);
+            String nombre = v.getEstudiante().getNombreCompleto() + " - " + v.getEvento().getNombre();
+            try {
+                ResultadoRegistro resultado = futuros.get(k).join();
+                resultados[i] = resultado == ResultadoRegistro.REGISTRADO
+                        ? new ResultadoArchivo(lectura.archivo, EstadoArchivo.REGISTRADO, lectura.texto, nombre)
+                        : new ResultadoArchivo(lectura.archivo, EstadoArchivo.DUPLICADO, lectura.texto,
+                                "Ya registrado anteriormente: " + nombre);
+            } catch (RuntimeException e) {
+                validador.liberar(v);
+                String mensaje = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+                resultados[i] = new ResultadoArchivo(lectura.archivo, EstadoArchivo.ERROR, lectura.texto, mensaje);
+            }
+        }
+    }
+
+    private EstadoArchivo mapearEstado(ValidadorEntradaEvento.Estado estado) {
+        switch (estado) {
+            case EXPIRADO: return EstadoArchivo.EXPIRADO;
+            case REUTILIZADO: return EstadoArchivo.DUPLICADO;
+            case FIRMA_INVALIDA: return EstadoArchivo.FIRMA_INVALIDA;
+            case ESTUDIANTE_DESCONOCIDO: return EstadoArchivo.ESTUDIANTE_DESCONOCIDO;
+            case EVENTO_NO_VALIDO: return EstadoArchivo.EVENTO_NO_VALIDO;
+            default: return EstadoArchivo.FORMATO_INVALIDO;
+        }
+    }
+
+    private String describir(ValidadorEntradaEvento.Validacion validacion) {
+        switch (validacion.getEstado()) {
+            case NO_ES_EVENTO: return "No es un QR de asistencia a evento";
+            case EXPIRADO: return "Estudiante " + validacion.getCodigoEstudiante();
+            case REUTILIZADO: return "QR ya utilizado: " + validacion.getCodigoEstudiante();
+            case FIRMA_INVALIDA: return "QR no emitido por el sistema: " + validacion.getCodigoEstudiante();
+            case ESTUDIANTE_DESCONOCIDO: return "Código " + validacion.getCodigoEstudiante();
+            case EVENTO_NO_VALIDO: return "Código de evento " + validacion.getCodigoEvento();
+            default: return "";
+        }
+    }
+
+    // ==================== RESULTADOS ====================
+
+    private static final class Lectura {
+        private final Path archivo;
+        private final String texto;
+        private final long capturaMs;
+        private final String error;
+
+        private Lectura(Path archivo, String texto, long capturaMs, String error) {
+            this.archivo = archivo;
+            this.texto = texto;
+            this.capturaMs = capturaMs;
+            this.error = error;
+        }
+    }
+
+    public static final class ResultadoArchivo {
+        private final Path archivo;
+        private final EstadoArchivo estado;
+        private final String contenido;
+        private final String detalle;
+
+        public ResultadoArchivo(Path archivo, EstadoArchivo estado, String contenido, String detalle) {
+            this.archivo = archivo;
+            this.estado = estado;
+            this.contenido = contenido;
+            this.detalle = detalle;
+        }
+
+        public Path getArchivo() { return archivo; }
+        public EstadoArchivo getEstado() { return estado; }
+        public String getContenido() { return contenido; }
+        public String getDetalle() { return detalle; }
+    }
+
+    /**
+     * Resultado de una importación: estado de cada archivo y métricas de rendimiento.
+     */
+    public static final class Reporte {
+        private final List<ResultadoArchivo> resultados;
+        private final Map<EstadoArchivo, Integer> conteos = new EnumMap<>(EstadoArchivo.class);
+        private final int hilos;
+        private final long nanosDecodificacion;
+        private final long nanosRegistro;
+
+        private Reporte(List<ResultadoArchivo> resultados, int hilos, long nanosDecodificacion, long nanosRegistro) {
+            this.resultados = Collections.unmodifiableList(resultados);
+            this.hilos = hilos;
+            this.nanosDecodificacion = nanosDecodificacion;
+            this.nanosRegistro = nanosRegistro;
+            for (EstadoArchivo estado : EstadoArchivo.values()) {
+                conteos.put(estado, 0);
+            }
+            for (ResultadoArchivo resultado : resultados) {
+                conteos.merge(resultado.getEstado(), 1, Integer::sum);
+            }
+        }
+
+        public List<ResultadoArchivo> getResultados() { return resultados; }
+        public int getTotal() { return resultados.size(); }
+        public int contar(EstadoArchivo estado) { return conteos.get(estado); }
+        public int getHilos() { return hilos; }
+        public long getMsDecodificacion() { return TimeUnit.NANOSECONDS.toMillis(nanosDecodificacion); }
+        public long getMsRegistro() { return TimeUnit.NANOSECONDS.toMillis(nanosRegistro); }
+        public long getMsTotal() { return TimeUnit.NANOSECONDS.toMillis(nanosDecodificacion + nanosRegistro); }
+
+        /**
+         * Imágenes procesadas por segundo, de principio a fin.
+         */
+        public double getArchivosPorSegundo() {
+            long total = nanosDecodificacion + nanosRegistro;
+            return total > 0 ? resultados.size() * 1e9 / total : 0;
+        }
+
+        public String getResumen() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("📂 Archivos: ").append(getTotal()).append('\n');
+            for (EstadoArchivo estado : EstadoArchivo.values()) {
+                int cantidad = contar(estado);
+                if (cantidad > 0) {
+                    sb.append("• ").append(estado.getDescripcion()).append(": ").append(cantidad).append('\n');
+                }
+            }
+            sb.append(String.format("⏱ Decodificación: %d ms (%d hilos), registro: %d ms%n",
+                    getMsDecodificacion(), hilos, getMsRegistro()));
+            sb.append(String.format("🚀 Rendimiento: %.1f imágenes/s", getArchivosPorSegundo()));
+            return sb.toString();
+        }
+
+        /**
+         * Escribe el detalle por archivo en formato CSV (UTF-8, separador ';').
+         */
+        public void escribirCSV(Path destino) throws IOException {
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(destino, StandardCharsets.UTF_8))) {
+                writer.println("Archivo;Estado;Detalle;Contenido QR");
+                for (ResultadoArchivo r : resultados) {
+                    writer.println(String.join(";",
+                            csv(r.getArchivo().toString()),
+                            csv(r.getEstado().getDescripcion()),
+                            csv(r.getDetalle()),
+                            csv(r.getContenido())));
+                }
+            }
+        }
+
+        private static String csv(String valor) {
+            if (valor == null) {
+                return "";
+            }
+            if (valor.contains(";") || valor.contains("\"") || valor.contains("\n")) {
+                return "\"" + valor.replace("\"", "\"\"") + "\"";
+            }
+            return valor;
+        }
+    }
+}
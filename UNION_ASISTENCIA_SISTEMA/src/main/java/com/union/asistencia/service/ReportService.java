@@ -6,7 +6,6 @@ import com.union.asistencia.model.Asistencia;
 import lombok.extern.java.Log;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -22,38 +21,20 @@ public class ReportService {
     }
 
     public List<Asistencia> generarReporteAsistenciaPorFecha(LocalDate fechaInicio, LocalDate fechaFin) {
-        LocalDateTime inicio = fechaInicio.atStartOfDay();
-        LocalDateTime fin = fechaFin.atTime(23, 59, 59);
-        return asistenciaDAO.obtenerTodas().stream()
-                .filter(a -> !a.getFechaHora().isBefore(inicio) && !a.getFechaHora().isAfter(fin))
-                .toList();
+        return asistenciaDAO.obtenerPorRangoFecha(fechaInicio.atStartOfDay(), fechaFin.atTime(23, 59, 59));
     }
 
     public Map<String, Long> generarEstadisticasAsistencia(LocalDate fechaInicio, LocalDate fechaFin) {
-        List<Asistencia> asistencias = generarReporteAsistenciaPorFecha(fechaInicio, fechaFin);
-
-        long presentes = asistencias.stream()
-                .filter(a -> "PRESENTE".equals(a.getEstado()))
-                .count();
-
-        long ausentes = asistencias.stream()
-                .filter(a -> "AUSENTE".equals(a.getEstado()))
-                .count();
-
-        long tardanzas = asistencias.stream()
-                .filter(a -> "TARDANZA".equals(a.getEstado()))
-                .count();
-
-        long justificados = asistencias.stream()
-                .filter(a -> "JUSTIFICADO".equals(a.getEstado()))
-                .count();
+        // Un solo GROUP BY estado en la base de datos, sin cargar los registros
+        Map<String, Long> conteos = asistenciaDAO.contarPorEstado(fechaInicio, fechaFin);
+        long total = conteos.values().stream().mapToLong(Long::longValue).sum();
 
         return Map.of(
-                "PRESENTE", presentes,
-                "AUSENTE", ausentes,
-                "TARDANZA", tardanzas,
-                "JUSTIFICADO", justificados,
-                "TOTAL", (long) asistencias.size()
+                "PRESENTE", conteos.getOrDefault("PRESENTE", 0L),
+                "AUSENTE", conteos.getOrDefault("AUSENTE", 0L),
+                "TARDANZA", conteos.getOrDefault("TARDANZA", 0L),
+                "JUSTIFICADO", conteos.getOrDefault("JUSTIFICADO", 0L),
+                "TOTAL", total
         );
     }
 
@@ -0,0 +1,138 @@
+package com.union.asistencia.service;
+
+import com.union.asistencia.dao.EstudianteDAO;
+import com.union.asistencia.dao.EventoDAO;
+import com.union.asistencia.model.Estudiante;
+import com.union.asistencia.model.Evento;
+import com.union.asistencia.util.FirmaQR;
+import com.union.asistencia.util.ParserQR;
+
+/**
+ * Valida un QR de entrada a evento (formato UPeU-ASIST-{CODIGO_ESTUDIANTE}-{CODIGO_EVENTO}-{TIMESTAMP}-{FIRMA})
+ * con las mismas reglas que el escaneo manual: firma válida, vigencia de 10 minutos,
+ * sin reuso dentro de la vigencia, estudiante registrado en el índice y evento activo. Lo comparten el escaneo manual,
+ * el escaneo continuo y la importación por lotes.
+ *
+ * El uso del QR se registra solo cuando todo lo demás es válido; si después el registro
+ * de asistencia falla, el llamador debe {@link #liberar(Validacion) liberarlo} para que el
+ * QR pueda reintentarse.
+ */
+public class ValidadorEntradaEvento {
+
+    public static final String PREFIJO = ParserQR.PREFIJO_ASISTENCIA;
+
+    /** Tiempo durante el cual un QR de evento es aceptado desde que se generó */
+    public static final long VIGENCIA_MS = FirmaQR.VIGENCIA_MS;
+
+    public enum Estado {
+        VALIDO,
+        NO_ES_EVENTO,
+        FORMATO_INVALIDO,
+        FIRMA_INVALIDA,
+        EXPIRADO,
+        REUTILIZADO,
+        ESTUDIANTE_DESCONOCIDO,
+        EVENTO_NO_VALIDO
+    }
+
+    private final EstudianteDAO estudianteDAO;
+    private final EventoDAO eventoDAO;
+
+    public ValidadorEntradaEvento() {
+        this(new EstudianteDAO(), new EventoDAO());
+    }
+
+    public ValidadorEntradaEvento(EstudianteDAO estudianteDAO, EventoDAO eventoDAO) {
+        this.estudianteDAO = estudianteDAO;
+        this.eventoDAO = eventoDAO;
+    }
+
+    /**
+     * Valida el contenido del QR.
+     *
+     * @param qrData Texto decodificado
+     * @param instanteLecturaMs Momento en que se leyó el QR (epoch ms); en la importación
+     *                          por lotes es la fecha de la captura, no la hora actual
+     */
+    public Validacion validar(String qrData, long instanteLecturaMs) {
+        if (qrData == null || !qrData.startsWith(PREFIJO)) {
+            return new Validacion(Estado.NO_ES_EVENTO, null, null, null, null);
+        }
+
+        ParserQR.Resultado qr = ParserQR.parsear(qrData);
+        if (!qr.esValido()) {
+            return new Validacion(Estado.FORMATO_INVALIDO, null, null, null, null);
+        }
+        String codigoEstudiante = qr.getCodigo();
+        String codigoEvento = qr.getCodigoEvento();
+
+        if (!FirmaQR.firmaValida(qrData, qr)) {
+            return new Validacion(Estado.FIRMA_INVALIDA, codigoEstudiante, codigoEvento, null, null);
+        }
+        // Se rechazan también los timestamps adelantados: una firma válida no debe servir indefinidamente
+        if (Math.abs(instanteLecturaMs - qr.getTimestamp()) > VIGENCIA_MS) {
+            return new Validacion(Estado.EXPIRADO, codigoEstudiante, codigoEvento, null, null);
+        }
+
+        Estudiante estudiante = estudianteDAO.obtenerPorCodigo(codigoEstudiante).orElse(null);
+        if (estudiante == null) {
+            return new Validacion(Estado.ESTUDIANTE_DESCONOCIDO, codigoEstudiante, codigoEvento, null, null);
+        }
+
+        Evento evento = eventoDAO.obtenerPorCodigo(codigoEvento).orElse(null);
+        if (evento == null || !Boolean.TRUE.equals(evento.getActivo())) {
+            return new Validacion(Estado.EVENTO_NO_VALIDO, codigoEstudiante, codigoEvento, estudiante, null);
+        }
+
+        // Último paso: un QR rechazado por otra causa no queda marcado como usado
+        if (!FirmaQR.registrarUso(qr, System.currentTimeMillis())) {
+            return new Validacion(Estado.REUTILIZADO, codigoEstudiante, codigoEvento, estudiante, evento);
+        }
+
+        return new Validacion(Estado.VALIDO, codigoEstudiante, codigoEvento, estudiante, evento, qr);
+    }
+
+    /**
+     * Libera el uso de un QR válido cuyo registro de asistencia no se pudo guardar.
+     */
+    public void liberar(Validacion validacion) {
+        if (validacion != null && validacion.qr != null) {
+            FirmaQR.liberarUso(validacion.qr);
+        }
+    }
+
+    /**
+     * Resultado de la validación. Estudiante y evento solo están presentes cuando se resolvieron.
+     */
+    public static final class Validacion {
+        private final Estado estado;
+        private final String codigoEstudiante;
+        private final String codigoEvento;
+        private final Estudiante estudiante;
+        private final Evento evento;
+        /** QR cuyo uso quedó registrado (solo en validaciones válidas) */
+        private final ParserQR.Resultado qr;
+
+        private Validacion(Estado estado, String codigoEstudiante, String codigoEvento,
+                           Estudiante estudiante, Evento evento) {
+            this(estado, codigoEstudiante, codigoEvento, estudiante, evento, null);
+        }
+
+        private Validacion(Estado estado, String codigoEstudiante, String codigoEvento,
+                           Estudiante estudiante, Evento evento, ParserQR.Resultado qr) {
+            this.estado = estado;
+            this.codigoEstudiante = codigoEstudiante;
+            this.codigoEvento = codigoEvento;
+            this.estudiante = estudiante;
+            this.evento = evento;
+            this.qr = qr;
+        }
+
+        public boolean esValida() { return estado == Estado.VALIDO; }
+        public Estado getEstado() { return estado; }
+        public String getCodigoEstudiante() { return codigoEstudiante; }
+        public String getCodigoEvento() { return codigoEvento; }
+        public Estudiante getEstudiante() { return estudiante; }
+        public Evento getEvento() { return evento; }
+    }
+}
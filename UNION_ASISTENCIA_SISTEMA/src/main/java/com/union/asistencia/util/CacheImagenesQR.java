@@ -0,0 +1,312 @@
+package com.union.asistencia.util;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import javafx.scene.image.Image;
+import lombok.extern.java.Log;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché de códigos QR ya codificados, indexada por el texto del QR.
+ *
+ * Guarda la matriz de módulos (lo costoso de obtener es la codificación; pasarla a
+ * imagen con {@link RenderizadorQR} es un volcado de memoria). El nivel en memoria es
+ * un LRU con presupuesto en bytes; opcionalmente, con la propiedad
+ * asistencia.qr.cache.dir, cada QR se guarda además como PNG a resolución de módulo
+ * para no volver a codificarlo tras reiniciar la aplicación.
+ *
+ * Los QR de los participantes se precalientan en paralelo al inscribirlos o al abrir
+ * un evento, de modo que mostrarlos o imprimir gafetes sean aciertos de caché.
+ */
+@Log
+public final class CacheImagenesQR {
+
+    private static final long PRESUPUESTO_BYTES = Long.getLong("asistencia.qr.cache.bytes", 16L * 1024 * 1024);
+    private static final String DIRECTORIO_DISCO = System.getProperty("asistencia.qr.cache.dir");
+
+    private static volatile CacheImagenesQR instancia;
+
+    private final long presupuestoBytes;
+    private final Path directorio;
+
+    /** texto del QR -> matriz, en orden de acceso (LRU) */
+    private final LinkedHashMap<String, BitMatrix> memoria = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytesEnMemoria;
+
+    /** QR que se están leyendo de disco o codificando, para no hacerlo dos veces a la vez */
+    private final ConcurrentHashMap<String, CompletableFuture<BitMatrix>> enCurso = new ConcurrentHashMap<>();
+
+    // ==================== MÉTRICAS ====================
+    private final AtomicLong aciertosMemoria = new AtomicLong();
+    private final AtomicLong aciertosDisco = new AtomicLong();
+    private final AtomicLong generados = new AtomicLong();
+    private final AtomicLong expulsados = new AtomicLong();
+
+    private CacheImagenesQR(long presupuestoBytes, Path directorio) {
+        this.presupuestoBytes = presupuestoBytes;
+        this.directorio = directorio;
+        if (directorio != null) {
+            try {
+                Files.createDirectories(directorio);
+            } catch (IOException e) {
+                log.warning("⚠️ No se pudo crear la caché en disco de QR " + directorio + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public static CacheImagenesQR getInstance() {
+        CacheImagenesQR actual = instancia;
+        if (actual == null) {
+            synchronized (CacheImagenesQR.class) {
+                actual = instancia;
+                if (actual == null) {
+                    Path dir = DIRECTORIO_DISCO != null && !DIRECTORIO_DISCO.isBlank() ? Paths.get(DIRECTORIO_DISCO) : null;
+                    actual = new CacheImagenesQR(PRESUPUESTO_BYTES, dir);
+                    instancia = actual;
+                }
+            }
+        }
+        return actual;
+    }
+
+    /**
+     * Devuelve la matriz del QR: memoria, luego disco y, si no está, la codifica. Si otro
+     * hilo ya está obteniendo el mismo QR (p. ej. el precalentado y la interfaz) se
+     * espera su resultado en lugar de codificarlo otra vez.
+     */
+    public BitMatrix obtenerMatriz(String data) throws WriterException {
+        BitMatrix matriz = obtenerDeMemoria(data);
+        if (matriz != null) {
+            return matriz;
+        }
+
+        CompletableFuture<BitMatrix> propio = new CompletableFuture<>();
+        CompletableFuture<BitMatrix> existente = enCurso.putIfAbsent(data, propio);
+        if (existente != null) {
+            return esperar(existente);
+        }
+        try {
+            // Pudo terminar otra obtención entre la consulta a memoria y el registro
+            matriz = obtenerDeMemoria(data);
+            if (matriz == null) {
+                matriz = leerDeDisco(data);
+                if (matriz != null) {
+                    aciertosDisco.incrementAndGet();
+                } else {
+                    matriz = RenderizadorQR.codificar(data);
+                    generados.incrementAndGet();
+                    escribirEnDisco(data, matriz);
+                }
+                guardarEnMemoria(data, matriz);
+            }
+            propio.complete(matriz);
+            return matriz;
+        } catch (WriterException | RuntimeException e) {
+            propio.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(data, propio);
+        }
+    }
+
+    /**
+     * Imagen del QR solo si ya está en memoria (no lee disco ni codifica), o null. Sirve
+     * para mostrarlo desde el hilo de JavaFX sin bloquearlo.
+     */
+    public Image obtenerImagenEnMemoria(String data) {
+        BitMatrix matriz = obtenerDeMemoria(data);
+        return matriz != null ? RenderizadorQR.aImagen(matriz) : null;
+    }
+
+    /**
+     * Imagen JavaFX a resolución de módulo (para un ImageView con smooth=false), o null si
+     * el texto no se pudo codificar.
+     */
+    public Image obtenerImagen(String data) {
+        try {
+            return RenderizadorQR.aImagen(obtenerMatriz(data));
+        } catch (WriterException e) {
+            log.severe("❌ Error al codificar QR: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Codifica en segundo plano, en paralelo, los QR que aún no están en caché.
+     */
+    public CompletableFuture<Void> precalentar(Collection<String> datos) {
+        return CompletableFuture.runAsync(() -> {
+            long inicio = System.nanoTime();
+            datos.parallelStream()
+                    .filter(d -> d != null && !d.isBlank())
+                    .distinct()
+                    .forEach(d -> {
+                        try {
+                            obtenerMatriz(d);
+                        } catch (WriterException e) {
+                            log.warning("⚠️ No se pudo precalentar QR: " + e.getMessage());
+                        }
+                    });
+            log.fine(String.format("QR precalentados: %d en %d ms", datos.size(),
+                    (System.nanoTime() - inicio) / 1_000_000));
+        });
+    }
+
+    public long getAciertosMemoria() { return aciertosMemoria.get(); }
+    public long getAciertosDisco() { return aciertosDisco.get(); }
+    public long getGenerados() { return generados.get(); }
+    public long getExpulsados() { return expulsados.get(); }
+
+    public long getBytesEnMemoria() {
+        synchronized (memoria) {
+            return bytesEnMemoria;
+        }
+    }
+
+    // ==================== NIVEL EN MEMORIA ====================
+
+    private BitMatrix obtenerDeMemoria(String data) {
+        synchronized (memoria) {
+            BitMatrix matriz = memoria.get(data);
+            if (matriz != null) {
+                aciertosMemoria.incrementAndGet();
+            }
+            return matriz;
+        }
+    }
+
+    private static BitMatrix esperar(CompletableFuture<BitMatrix> enCurso) throws WriterException {
+        try {
+            return enCurso.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof WriterException) {
+                throw (WriterException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void guardarEnMemoria(String data, BitMatrix matriz) {
+        long tamanio = estimarBytes(data, matriz);
+        if (tamanio > presupuestoBytes) {
+            return;
+        }
+        synchronized (memoria) {
+            BitMatrix anterior = memoria.put(data, matriz);
+            if (anterior != null) {
+                bytesEnMemoria -= estimarBytes(data, anterior);
+            }
+            bytesEnMemoria += tamanio;
+
+            Iterator<Map.Entry<String, BitMatrix>> it = memoria.entrySet().iterator();
+            while (bytesEnMemoria > presupuestoBytes && it.hasNext()) {
+                Map.Entry<String, BitMatrix> masAntigua = it.next();
+                bytesEnMemoria -= estimarBytes(masAntigua.getKey(), masAntigua.getValue());
+                it.remove();
+                expulsados.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Bits de la matriz más la clave y el encabezado aproximado de los objetos.
+     */
+    private static long estimarBytes(String data, BitMatrix matriz) {
+        return (long) matriz.getRowSize() * matriz.getHeight() * Integer.BYTES
+                + 2L * data.length() + 96;
+    }
+
+    // ==================== NIVEL EN DISCO ====================
+
+    private BitMatrix leerDeDisco(String data) {
+        if (directorio == null) {
+            return null;
+        }
+        Path archivo = archivoPara(data);
+        if (!Files.isRegularFile(archivo)) {
+            return null;
+        }
+        try {
+            BufferedImage imagen = ImageIO.read(archivo.toFile());
+            if (imagen == null) {
+                return null;
+            }
+            BitMatrix matriz = new BitMatrix(imagen.getWidth(), imagen.getHeight());
+            for (int y = 0; y < imagen.getHeight(); y++) {
+                for (int x = 0; x < imagen.getWidth(); x++) {
+                    if ((imagen.getRGB(x, y) & 0xFFFFFF) == 0) {
+                        matriz.set(x, y);
+                    }
+                }
+            }
+            return matriz;
+        } catch (IOException e) {
+            log.warning("⚠️ QR en disco ilegible " + archivo + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void escribirEnDisco(String data, BitMatrix matriz) {
+        if (directorio == null) {
+            return;
+        }
+        BufferedImage imagen = new BufferedImage(matriz.getWidth(), matriz.getHeight(), BufferedImage.TYPE_BYTE_BINARY);
+        imagen.setRGB(0, 0, matriz.getWidth(), matriz.getHeight(),
+                RenderizadorQR.aPixeles(matriz, null), 0, matriz.getWidth());
+
+        Path archivo = archivoPara(data);
+        Path temporal = null;
+        try {
+            // Se escribe a un temporal y se mueve para que otro hilo nunca lea un PNG a medias
+            temporal = Files.createTempFile(directorio, "qr", ".tmp");
+            ImageIO.write(imagen, "png", temporal.toFile());
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            temporal = null;
+        } catch (IOException e) {
+            log.warning("⚠️ No se pudo guardar QR en disco: " + e.getMessage());
+        } finally {
+            // Si la escritura o el movimiento fallaron no se deja el temporal huérfano en la caché
+            if (temporal != null) {
+                try {
+                    Files.deleteIfExists(temporal);
+                } catch (IOException e) {
+                    log.warning("⚠️ No se pudo borrar el temporal " + temporal + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Path archivoPara(String data) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(data.getBytes(StandardCharsets.UTF_8));
+            StringBuilder nombre = new StringBuilder(36);
+            for (int i = 0; i < 16; i++) {
+                nombre.append(String.format("%02x", hash[i]));
+            }
+            return directorio.resolve(nombre.append(".png").toString());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
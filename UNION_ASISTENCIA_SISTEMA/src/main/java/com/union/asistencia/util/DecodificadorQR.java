@@ -0,0 +1,156 @@
+package com.union.asistencia.util;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decodificador de códigos QR reutilizable y seguro entre hilos.
+ *
+ * Cada hilo conserva sus propios lectores ZXing ya configurados solo para QR_CODE,
+ * así no se crean lectores ni se prueban otros formatos en cada imagen. Las fotos
+ * grandes (cámara del celular) se reducen en escala de grises antes de binarizar, y
+ * el modo TRY_HARDER a resolución completa solo se usa cuando el intento rápido falla.
+ */
+public final class DecodificadorQR {
+
+    /** Lado mayor (px) al que se reducen las imágenes antes del intento rápido */
+    private static final int LADO_MAXIMO = Integer.getInteger("asistencia.qr.lado.maximo", 1024);
+
+    private static final Map<DecodeHintType, Object> HINTS_RAPIDO = crearHints(false);
+    private static final Map<DecodeHintType, Object> HINTS_INTENSIVO = crearHints(true);
+
+    private static final ThreadLocal<MultiFormatReader> LECTOR_RAPIDO =
+            ThreadLocal.withInitial(() -> crearLector(HINTS_RAPIDO));
+    private static final ThreadLocal<MultiFormatReader> LECTOR_INTENSIVO =
+            ThreadLocal.withInitial(() -> crearLector(HINTS_INTENSIVO));
+
+    // ==================== MÉTRICAS ====================
+    private static final AtomicLong aciertosRapidos = new AtomicLong();
+    private static final AtomicLong aciertosIntensivos = new AtomicLong();
+    private static final AtomicLong fallos = new AtomicLong();
+
+    private DecodificadorQR() {
+    }
+
+    /**
+     * Decodifica el QR de la imagen completa.
+     *
+     * @return texto del QR, o null si no se encontró ninguno
+     */
+    public static String decodificar(BufferedImage imagen) {
+        return decodificar(imagen, null);
+    }
+
+    /**
+     * Decodifica el QR dentro de la región de interés indicada (p. ej. el recuadro
+     * central donde el operador coloca el carné). Con region null se usa toda la imagen.
+     */
+    public static String decodificar(BufferedImage imagen, Rectangle region) {
+        if (imagen == null) {
+            return null;
+        }
+        Rectangle roi = ajustarRegion(imagen, region);
+
+        // 1) Intento rápido: imagen reducida, sin TRY_HARDER
+        String texto = intentar(LECTOR_RAPIDO.get(), fuenteReducida(imagen, roi));
+        if (texto != null) {
+            aciertosRapidos.incrementAndGet();
+            return texto;
+        }
+
+        // 2) Respaldo: resolución completa de la región con TRY_HARDER
+        texto = intentar(LECTOR_INTENSIVO.get(),
+                new BufferedImageLuminanceSource(imagen, roi.x, roi.y, roi.width, roi.height));
+        if (texto != null) {
+            aciertosIntensivos.incrementAndGet();
+            return texto;
+        }
+
+        fallos.incrementAndGet();
+        return null;
+    }
+
+    public static long getAciertosRapidos() { return aciertosRapidos.get(); }
+    public static long getAciertosIntensivos() { return aciertosIntensivos.get(); }
+    public static long getFallos() { return fallos.get(); }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    private static String intentar(MultiFormatReader lector, LuminanceSource fuente) {
+        try {
+            // decodeWithState reutiliza los lectores internos ya configurados con los hints
+            return lector.decodeWithState(new BinaryBitmap(new HybridBinarizer(fuente))).getText();
+        } catch (NotFoundException e) {
+            return null;
+        } finally {
+            lector.reset();
+        }
+    }
+
+    /**
+     * Devuelve la región en escala de grises, reducida si su lado mayor supera LADO_MAXIMO.
+     */
+    private static LuminanceSource fuenteReducida(BufferedImage imagen, Rectangle roi) {
+        int ladoMayor = Math.max(roi.width, roi.height);
+        if (ladoMayor <= LADO_MAXIMO) {
+            return new BufferedImageLuminanceSource(imagen, roi.x, roi.y, roi.width, roi.height);
+        }
+
+        double escala = (double) LADO_MAXIMO / ladoMayor;
+        int ancho = Math.max(1, (int) Math.round(roi.width * escala));
+        int alto = Math.max(1, (int) Math.round(roi.height * escala));
+
+        BufferedImage reducida = new BufferedImage(ancho, alto, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = reducida.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(imagen,
+                    0, 0, ancho, alto,
+                    roi.x, roi.y, roi.x + roi.width, roi.y + roi.height,
+                    null);
+        } finally {
+            g.dispose();
+        }
+        return new BufferedImageLuminanceSource(reducida);
+    }
+
+    private static Rectangle ajustarRegion(BufferedImage imagen, Rectangle region) {
+        Rectangle completa = new Rectangle(0, 0, imagen.getWidth(), imagen.getHeight());
+        if (region == null) {
+            return completa;
+        }
+        Rectangle ajustada = region.intersection(completa);
+        return ajustada.isEmpty() ? completa : ajustada;
+    }
+
+    private static Map<DecodeHintType, Object> crearHints(boolean intensivo) {
+        Map<DecodeHintType, Object> hints = new EnumMap<>(DecodeHintType.class);
+        hints.put(DecodeHintType.POSSIBLE_FORMATS, Collections.singletonList(BarcodeFormat.QR_CODE));
+        hints.put(DecodeHintType.CHARACTER_SET, "UTF-8");
+        if (intensivo) {
+            hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+        }
+        return Collections.unmodifiableMap(hints);
+    }
+
+    private static MultiFormatReader crearLector(Map<DecodeHintType, Object> hints) {
+        MultiFormatReader lector = new MultiFormatReader();
+        lector.setHints(hints);
+        return lector;
+    }
+}
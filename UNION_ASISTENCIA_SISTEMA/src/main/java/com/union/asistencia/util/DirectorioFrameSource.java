@@ -0,0 +1,120 @@
+package com.union.asistencia.util;
+
+import lombok.extern.java.Log;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fuente de fotogramas que vigila una carpeta: cada imagen creada o modificada
+ * (p. ej. por una cámara IP o un programa de captura que guarda cuadros en disco)
+ * se entrega como fotograma. El id combina ruta, fecha de modificación y tamaño.
+ */
+@Log
+public class DirectorioFrameSource implements FrameSource {
+
+    private final Path directorio;
+    private final WatchService watchService;
+    private final Deque<Path> pendientes = new ArrayDeque<>();
+
+    public DirectorioFrameSource(Path directorio) throws IOException {
+        this.directorio = directorio;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        directorio.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        log.info("📂 Vigilando carpeta de fotogramas: " + directorio);
+    }
+
+    @Override
+    public Fotograma siguiente(long timeoutMs) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+
+        while (true) {
+            Path archivo = pendientes.pollFirst();
+            if (archivo != null) {
+                Fotograma fotograma = leer(archivo);
+                if (fotograma != null) {
+                    return fotograma;
+                }
+                continue;
+            }
+
+            long restante = limite - System.nanoTime();
+            if (restante <= 0) {
+                return null;
+            }
+            try {
+                WatchKey key = watchService.poll(restante, TimeUnit.NANOSECONDS);
+                if (key == null) {
+                    return null;
+                }
+                for (WatchEvent<?> evento : key.pollEvents()) {
+                    if (evento.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        continue;
+                    }
+                    Path nuevo = directorio.resolve((Path) evento.context());
+                    // Un mismo archivo suele generar CREATE + MODIFY; se encola una sola vez
+                    if (esImagen(nuevo) && !pendientes.contains(nuevo)) {
+                        pendientes.addLast(nuevo);
+                    }
+                }
+                key.reset();
+            } catch (ClosedWatchServiceException e) {
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public boolean agotada() {
+        return false;
+    }
+
+    @Override
+    public String getDescripcion() {
+        return "Carpeta " + directorio.getFileName();
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.warning("⚠️ Error al cerrar la vigilancia de carpeta: " + e.getMessage());
+        }
+    }
+
+    private Fotograma leer(Path archivo) {
+        try {
+            BufferedImage imagen = ImageIO.read(archivo.toFile());
+            if (imagen == null) {
+                // Archivo aún incompleto o formato no soportado
+                return null;
+            }
+            String id = archivo + "@" + Files.getLastModifiedTime(archivo).toMillis() + ":" + Files.size(archivo);
+            return new Fotograma(id, imagen);
+        } catch (IOException e) {
+            log.fine("Fotograma ilegible " + archivo + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    public static boolean esImagen(Path archivo) {
+        String nombre = archivo.getFileName().toString().toLowerCase();
+        return nombre.endsWith(".png") || nombre.endsWith(".jpg") || nombre.endsWith(".jpeg")
+                || nombre.endsWith(".bmp") || nombre.endsWith(".gif");
+    }
+}
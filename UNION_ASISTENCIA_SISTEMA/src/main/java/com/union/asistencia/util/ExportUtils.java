@@ -6,6 +6,7 @@ import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import lombok.extern.java.Log;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
@@ -13,6 +14,7 @@ import java.io.PrintWriter;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.BiFunction;
 
 @Log
 public class ExportUtils {
@@ -91,6 +93,71 @@ public class ExportUtils {
         }
     }
 
+    /**
+     * Pide al usuario dónde guardar un CSV; null si canceló.
+     */
+    public static File elegirArchivoCSV(String nombreArchivo) {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Guardar Reporte CSV");
+        fileChooser.setInitialFileName(nombreArchivo + "_" +
+                LocalDateTime.now().format(DATE_FORMATTER) + ".csv");
+        fileChooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("Archivos CSV", "*.csv")
+        );
+        return fileChooser.showSaveDialog(new Stage());
+    }
+
+    /**
+     * Escribe en CSV, con las columnas de la tabla, todas las filas que entregue la fuente
+     * página por página y no solo las que la tabla tiene cargadas. No muestra diálogos ni
+     * modifica la tabla, así puede ejecutarse fuera del hilo de JavaFX. Si falla se borra
+     * el archivo a medio escribir.
+     *
+     * @param siguientePagina Filas que siguen a la indicada (null = primera página), hasta el límite
+     * @return Cantidad de filas escritas
+     */
+    public static <T> long exportarPaginasACSV(List<TableColumn<T, ?>> columnas, File archivo,
+                                               BiFunction<T, Integer, List<T>> siguientePagina,
+                                               int tamanioPagina) throws IOException {
+        long totalFilas = 0;
+        try (BufferedWriter escritor = new BufferedWriter(new FileWriter(archivo))) {
+            for (int i = 0; i < columnas.size(); i++) {
+                if (i > 0) {
+                    escritor.write(",");
+                }
+                escritor.write(escapeCSV(columnas.get(i).getText()));
+            }
+            escritor.write("\n");
+
+            T ultima = null;
+            List<T> pagina;
+            do {
+                pagina = siguientePagina.apply(ultima, tamanioPagina);
+                for (T fila : pagina) {
+                    for (int i = 0; i < columnas.size(); i++) {
+                        if (i > 0) {
+                            escritor.write(",");
+                        }
+                        Object valorCelda = getCellDataSafe(columnas.get(i), fila);
+                        escritor.write(escapeCSV(valorCelda != null ? valorCelda.toString() : ""));
+                    }
+                    escritor.write("\n");
+                }
+                totalFilas += pagina.size();
+                if (!pagina.isEmpty()) {
+                    ultima = pagina.get(pagina.size() - 1);
+                }
+            } while (pagina.size() == tamanioPagina);
+        } catch (IOException | RuntimeException e) {
+            if (!archivo.delete() && archivo.exists()) {
+                log.warning("No se pudo borrar el CSV incompleto: " + archivo.getAbsolutePath());
+            }
+            throw e;
+        }
+        log.info("Exportación por páginas completada: " + totalFilas + " filas en " + archivo.getAbsolutePath());
+        return totalFilas;
+    }
+
     @SuppressWarnings({"unchecked", "rawtypes"})
     public static void exportarTablaACSVSeguro(TableView<?> tabla, String nombreArchivo) {
         try {
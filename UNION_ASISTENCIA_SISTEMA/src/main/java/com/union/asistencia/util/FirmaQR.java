@@ -0,0 +1,248 @@
+package com.union.asistencia.util;
+
+import com.union.asistencia.dao.ParametroDAO;
+import lombok.extern.java.Log;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Firma y verificación de los códigos QR emitidos por el sistema.
+ *
+ * La firma es un HMAC-SHA256 truncado a 80 bits (20 caracteres hex) sobre el texto
+ * del QR hasta el timestamp inclusive, y se agrega como último campo. La clave se
+ * deriva una sola vez del secreto guardado en parametros_sistema (o de la propiedad
+ * asistencia.qr.clave) y cada hilo reutiliza su propio Mac ya inicializado, por lo
+ * que verificar cuesta un HMAC de pocos bytes y una comparación en tiempo constante.
+ *
+ * Para impedir que un QR válido se use dos veces dentro de su vigencia, los QR
+ * aceptados se recuerdan en cubetas de un minuto según su timestamp; las cubetas que
+ * salen de la ventana se reciclan, así la memoria queda acotada.
+ */
+@Log
+public final class FirmaQR {
+
+    /** Vigencia de un QR de asistencia desde que se generó (en ambos sentidos del reloj) */
+    public static final long VIGENCIA_MS = 10 * 60 * 1000;
+
+    /** Si es false se aceptan QR sin firma (códigos emitidos antes de la firma) */
+    private static final boolean FIRMA_OBLIGATORIA =
+            Boolean.parseBoolean(System.getProperty("asistencia.qr.firma.obligatoria", "true"));
+
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final byte[] CONTEXTO_DERIVACION = "UPeU-ASIST-QR-v1".getBytes(StandardCharsets.US_ASCII);
+    private static final int BYTES_FIRMA = 10;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static volatile SecretKeySpec claveDerivada;
+
+    /** Mac por hilo, reinicializado solo si cambió la clave */
+    private static final ThreadLocal<MacInicializado> MAC = new ThreadLocal<>();
+
+    // ==================== REGISTRO DE USOS ====================
+    private static final long ANCHO_CUBETA_MS = 60_000;
+    private static final int CUBETAS_VIGENCIA = (int) ((VIGENCIA_MS + ANCHO_CUBETA_MS - 1) / ANCHO_CUBETA_MS) + 1;
+    /** Cubre timestamps entre -vigencia y +vigencia respecto del reloj actual */
+    private static final int NUM_CUBETAS = 2 * CUBETAS_VIGENCIA + 1;
+    private static final int MAX_POR_CUBETA = Integer.getInteger("asistencia.qr.usos.cubeta", 50_000);
+    private static final Cubeta[] CUBETAS = crearCubetas();
+
+    private FirmaQR() {
+    }
+
+    public static boolean isFirmaObligatoria() {
+        return FIRMA_OBLIGATORIA;
+    }
+
+    /**
+     * Devuelve el texto recibido con su firma agregada como último campo.
+     *
+     * @param contenido Texto del QR terminado en el timestamp
+     * @param separador '-' para UPeU-ASIST, '|' para EST/DOC/EVT
+     */
+    public static String firmar(String contenido, char separador) {
+        byte[] mac = calcular(contenido, contenido.length());
+        char[] firma = new char[BYTES_FIRMA * 2];
+        for (int i = 0; i < BYTES_FIRMA; i++) {
+            firma[2 * i] = HEX[(mac[i] >> 4) & 0x0F];
+            firma[2 * i + 1] = HEX[mac[i] & 0x0F];
+        }
+        return contenido + separador + new String(firma);
+    }
+
+    /**
+     * Verifica la firma de un QR ya interpretado. Un QR sin firma solo es válido si la
+     * firma no es obligatoria. La comparación no depende de dónde difieren las firmas.
+     */
+    public static boolean firmaValida(String qr, ParserQR.Resultado resultado) {
+        String firma = resultado.getFirma();
+        if (firma == null) {
+            return !FIRMA_OBLIGATORIA;
+        }
+        if (firma.length() != BYTES_FIRMA * 2) {
+            return false;
+        }
+
+        byte[] mac = calcular(qr, resultado.getLongitudFirmada());
+        int diferencia = 0;
+        for (int i = 0; i < BYTES_FIRMA; i++) {
+            diferencia |= firma.charAt(2 * i) ^ HEX[(mac[i] >> 4) & 0x0F];
+            diferencia |= firma.charAt(2 * i + 1) ^ HEX[mac[i] & 0x0F];
+        }
+        return diferencia == 0;
+    }
+
+    /**
+     * Registra el uso de un QR ya verificado. Devuelve false si el mismo QR ya se usó
+     * dentro de su vigencia (reuso). QR con timestamp fuera de la ventana que se controla
+     * (p. ej. capturas antiguas en una importación) no se registran y se aceptan: para
+     * ellos la restricción única de la base de datos evita el registro duplicado.
+     */
+    public static boolean registrarUso(ParserQR.Resultado resultado, long ahoraMs) {
+        long numero = resultado.getTimestamp() / ANCHO_CUBETA_MS;
+        long actual = ahoraMs / ANCHO_CUBETA_MS;
+        if (numero < actual - CUBETAS_VIGENCIA || numero > actual + CUBETAS_VIGENCIA) {
+            return true;
+        }
+
+        long nonce = nonce(resultado);
+        Cubeta cubeta = CUBETAS[(int) Math.floorMod(numero, (long) NUM_CUBETAS)];
+        synchronized (cubeta) {
+            if (cubeta.numero != numero) {
+                // La cubeta guardaba un minuto que ya salió de la ventana
+                cubeta.numero = numero;
+                cubeta.usos.clear();
+            }
+            if (cubeta.usos.size() >= MAX_POR_CUBETA) {
+                log.warning("⚠️ Registro de usos de QR lleno para el minuto " + numero + "; no se controla el reuso");
+                return true;
+            }
+            return cubeta.usos.add(nonce);
+        }
+    }
+
+    /**
+     * Deshace un {@link #registrarUso} cuyo registro no llegó a guardarse (error de base
+     * de datos, cola llena), para que el mismo QR pueda reintentarse dentro de su vigencia.
+     */
+    public static void liberarUso(ParserQR.Resultado resultado) {
+        long numero = resultado.getTimestamp() / ANCHO_CUBETA_MS;
+        Cubeta cubeta = CUBETAS[(int) Math.floorMod(numero, (long) NUM_CUBETAS)];
+        synchronized (cubeta) {
+            if (cubeta.numero == numero) {
+                cubeta.usos.remove(nonce(resultado));
+            }
+        }
+    }
+
+    /**
+     * Reemplaza el secreto de firma (p. ej. tras rotarlo). Los QR emitidos con el
+     * secreto anterior dejan de ser válidos.
+     */
+    public static synchronized void configurarSecreto(byte[] secreto) {
+        claveDerivada = derivar(secreto);
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    private static byte[] calcular(String texto, int longitud) {
+        SecretKeySpec clave = obtenerClave();
+        MacInicializado actual = MAC.get();
+        if (actual == null || actual.clave != clave) {
+            actual = new MacInicializado(clave);
+            MAC.set(actual);
+        }
+        Mac mac = actual.mac;
+        for (int i = 0; i < longitud; i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                mac.update((byte) c);
+            } else {
+                // Nombres con tildes: se firma su codificación UTF-8
+                mac.update(String.valueOf(c).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return mac.doFinal();
+    }
+
+    /**
+     * Los primeros 64 bits de la firma identifican al QR; sin firma se usa un hash del contenido.
+     */
+    private static long nonce(ParserQR.Resultado resultado) {
+        String firma = resultado.getFirma();
+        if (firma == null) {
+            return (31L * String.valueOf(resultado.getCodigo()).hashCode()
+                    + String.valueOf(resultado.getCodigoEvento()).hashCode()) * 31L + resultado.getTimestamp();
+        }
+        long valor = 0;
+        for (int i = 0; i < 16 && i < firma.length(); i++) {
+            valor = (valor << 4) | Character.digit(firma.charAt(i), 16);
+        }
+        return valor;
+    }
+
+    private static SecretKeySpec obtenerClave() {
+        SecretKeySpec clave = claveDerivada;
+        if (clave == null) {
+            synchronized (FirmaQR.class) {
+                clave = claveDerivada;
+                if (clave == null) {
+                    clave = derivar(cargarSecreto());
+                    claveDerivada = clave;
+                }
+            }
+        }
+        return clave;
+    }
+
+    private static byte[] cargarSecreto() {
+        String secreto = System.getProperty("asistencia.qr.clave");
+        if (secreto == null || secreto.isBlank()) {
+            secreto = new ParametroDAO().obtener(ParametroDAO.CLAVE_FIRMA_QR)
+                    .orElseThrow(() -> new IllegalStateException("No hay clave de firma de QR configurada"));
+        }
+        return secreto.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static SecretKeySpec derivar(byte[] secreto) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(new SecretKeySpec(secreto, ALGORITMO));
+            return new SecretKeySpec(mac.doFinal(CONTEXTO_DERIVACION), ALGORITMO);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo derivar la clave de firma de QR", e);
+        }
+    }
+
+    private static Cubeta[] crearCubetas() {
+        Cubeta[] cubetas = new Cubeta[NUM_CUBETAS];
+        for (int i = 0; i < cubetas.length; i++) {
+            cubetas[i] = new Cubeta();
+        }
+        return cubetas;
+    }
+
+    private static final class MacInicializado {
+        private final SecretKeySpec clave;
+        private final Mac mac;
+
+        private MacInicializado(SecretKeySpec clave) {
+            try {
+                this.clave = clave;
+                this.mac = Mac.getInstance(ALGORITMO);
+                this.mac.init(clave);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("No se pudo inicializar HMAC para QR", e);
+            }
+        }
+    }
+
+    private static final class Cubeta {
+        private long numero = Long.MIN_VALUE;
+        private final Set<Long> usos = new HashSet<>();
+    }
+}
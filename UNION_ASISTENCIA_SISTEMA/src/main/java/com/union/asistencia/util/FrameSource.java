@@ -0,0 +1,47 @@
+package com.union.asistencia.util;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Fuente de fotogramas para el escaneo continuo de códigos QR.
+ * Permite alimentar el decodificador desde una cámara, una carpeta vigilada o una
+ * secuencia de imágenes grabada (útil para pruebas sin hardware).
+ */
+public interface FrameSource extends AutoCloseable {
+
+    /**
+     * Devuelve el siguiente fotograma disponible, esperando como máximo el tiempo
+     * indicado. Devuelve null si no llegó ninguno en ese tiempo.
+     */
+    Fotograma siguiente(long timeoutMs) throws InterruptedException;
+
+    /**
+     * Indica si la fuente ya no producirá más fotogramas (fin de una secuencia).
+     */
+    boolean agotada();
+
+    /**
+     * Nombre legible de la fuente para logs y estado en pantalla.
+     */
+    String getDescripcion();
+
+    @Override
+    void close();
+
+    /**
+     * Imagen capturada junto con un identificador estable: dos fotogramas con el
+     * mismo id tienen el mismo contenido y no se vuelven a decodificar.
+     */
+    final class Fotograma {
+        private final String id;
+        private final BufferedImage imagen;
+
+        public Fotograma(String id, BufferedImage imagen) {
+            this.id = id;
+            this.imagen = imagen;
+        }
+
+        public String getId() { return id; }
+        public BufferedImage getImagen() { return imagen; }
+    }
+}
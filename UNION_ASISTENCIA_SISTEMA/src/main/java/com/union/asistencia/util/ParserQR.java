@@ -0,0 +1,274 @@
+package com.union.asistencia.util;
+
+/**
+ * Intérprete de los textos de QR que maneja el sistema, en una sola pasada sobre los
+ * caracteres, sin expresiones regulares ni arreglos intermedios:
+ *
+ * <ul>
+ *     <li>UPeU-ASIST-{CODIGO_ESTUDIANTE}-{CODIGO_EVENTO}-{TIMESTAMP}[-{FIRMA}]</li>
+ *     <li>EST|{ID}|{CODIGO}|{NOMBRE}|{CURSO}|{TIMESTAMP}[|{FIRMA}]</li>
+ *     <li>DOC|{ID}|{CODIGO}|{NOMBRE}|{MATERIA}|{TIMESTAMP}[|{FIRMA}]</li>
+ *     <li>EVT|{ID}|{NOMBRE}|{LUGAR}|{FECHA}|{TIMESTAMP}[|{FIRMA}]</li>
+ * </ul>
+ *
+ * La firma opcional es la emitida por {@link FirmaQR}; el parser solo la separa del
+ * contenido firmado, la verificación queda a cargo de quien consume el resultado.
+ *
+ * Los números se acumulan dígito a dígito y los delimitadores se ubican con indexOf;
+ * solo se crean los String de los campos de texto del resultado. Los errores se
+ * devuelven como instancias constantes, sin excepciones ni asignaciones.
+ */
+public final class ParserQR {
+
+    public static final String PREFIJO_ASISTENCIA = "UPeU-ASIST-";
+
+    public enum Tipo {
+        /** QR de entrada a evento (UPeU-ASIST) */
+        ASISTENCIA_EVENTO,
+        ESTUDIANTE,
+        DOCENTE,
+        EVENTO
+    }
+
+    public enum CodigoError {
+        NINGUNO,
+        VACIO,
+        FORMATO_DESCONOCIDO,
+        CAMPOS_INSUFICIENTES,
+        CAMPO_VACIO,
+        ID_INVALIDO,
+        TIMESTAMP_INVALIDO
+    }
+
+    private static final Resultado ERROR_VACIO = new Resultado(CodigoError.VACIO);
+    private static final Resultado ERROR_FORMATO = new Resultado(CodigoError.FORMATO_DESCONOCIDO);
+    private static final Resultado ERROR_CAMPOS = new Resultado(CodigoError.CAMPOS_INSUFICIENTES);
+    private static final Resultado ERROR_CAMPO_VACIO = new Resultado(CodigoError.CAMPO_VACIO);
+    private static final Resultado ERROR_ID = new Resultado(CodigoError.ID_INVALIDO);
+    private static final Resultado ERROR_TIMESTAMP = new Resultado(CodigoError.TIMESTAMP_INVALIDO);
+
+    /** Valor devuelto por parsearNumero cuando el rango no es un entero no negativo válido */
+    private static final long INVALIDO = -1;
+
+    private ParserQR() {
+    }
+
+    /**
+     * Interpreta el texto de un QR. Nunca devuelve null: si el texto no es válido el
+     * resultado indica el motivo en {@link Resultado#getError()}.
+     */
+    public static Resultado parsear(String qr) {
+        if (qr == null || qr.isEmpty()) {
+            return ERROR_VACIO;
+        }
+        if (qr.startsWith(PREFIJO_ASISTENCIA)) {
+            return parsearAsistencia(qr);
+        }
+        if (qr.length() > 4 && qr.charAt(3) == '|') {
+            Tipo tipo;
+            if (qr.startsWith("EST")) {
+                tipo = Tipo.ESTUDIANTE;
+            } else if (qr.startsWith("DOC")) {
+                tipo = Tipo.DOCENTE;
+            } else if (qr.startsWith("EVT")) {
+                tipo = Tipo.EVENTO;
+            } else {
+                return ERROR_FORMATO;
+            }
+            return parsearCampos(qr, tipo);
+        }
+        return ERROR_FORMATO;
+    }
+
+    // ==================== FORMATOS ====================
+
+    /**
+     * UPeU-ASIST-{CODIGO_ESTUDIANTE}-{CODIGO_EVENTO}-{TIMESTAMP}[-{FIRMA}]. Lo que siga
+     * a un quinto guion se ignora.
+     */
+    private static Resultado parsearAsistencia(String qr) {
+        int inicioEstudiante = PREFIJO_ASISTENCIA.length();
+        int finEstudiante = qr.indexOf('-', inicioEstudiante);
+        if (finEstudiante < 0) {
+            return ERROR_CAMPOS;
+        }
+        int finEvento = qr.indexOf('-', finEstudiante + 1);
+        if (finEvento < 0) {
+            return ERROR_CAMPOS;
+        }
+        int finTimestamp = finCampo(qr, finEvento + 1, '-');
+
+        if (finEstudiante == inicioEstudiante || finEvento == finEstudiante + 1) {
+            return ERROR_CAMPO_VACIO;
+        }
+        long timestamp = parsearNumero(qr, finEvento + 1, finTimestamp);
+        if (timestamp == INVALIDO) {
+            return ERROR_TIMESTAMP;
+        }
+
+        return new Resultado(Tipo.ASISTENCIA_EVENTO, 0,
+                qr.substring(inicioEstudiante, finEstudiante),
+                qr.substring(finEstudiante + 1, finEvento),
+                null, null, null, timestamp,
+                firma(qr, finTimestamp, '-'), finTimestamp);
+    }
+
+    /**
+     * TIPO|ID|A|B|C|TIMESTAMP[|FIRMA]. Campos adicionales después de la firma se ignoran.
+     */
+    private static Resultado parsearCampos(String qr, Tipo tipo) {
+        int inicioId = 4;
+        int finId = qr.indexOf('|', inicioId);
+        if (finId < 0) {
+            return ERROR_CAMPOS;
+        }
+        int finA = qr.indexOf('|', finId + 1);
+        if (finA < 0) {
+            return ERROR_CAMPOS;
+        }
+        int finB = qr.indexOf('|', finA + 1);
+        if (finB < 0) {
+            return ERROR_CAMPOS;
+        }
+        int finC = qr.indexOf('|', finB + 1);
+        if (finC < 0) {
+            return ERROR_CAMPOS;
+        }
+        int finTimestamp = finCampo(qr, finC + 1, '|');
+
+        long id = parsearNumero(qr, inicioId, finId);
+        if (id == INVALIDO) {
+            return ERROR_ID;
+        }
+        long timestamp = parsearNumero(qr, finC + 1, finTimestamp);
+        if (timestamp == INVALIDO) {
+            return ERROR_TIMESTAMP;
+        }
+
+        String a = qr.substring(finId + 1, finA);
+        String b = qr.substring(finA + 1, finB);
+        String c = qr.substring(finB + 1, finC);
+
+        String firma = firma(qr, finTimestamp, '|');
+
+        if (tipo == Tipo.EVENTO) {
+            // EVT|ID|NOMBRE|LUGAR|FECHA|TIMESTAMP
+            return new Resultado(tipo, id, null, null, a, b, c, timestamp, firma, finTimestamp);
+        }
+        // EST|ID|CODIGO|NOMBRE|DETALLE|TIMESTAMP (igual para DOC)
+        return new Resultado(tipo, id, a, null, b, c, null, timestamp, firma, finTimestamp);
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    /**
+     * Campo de firma que sigue al timestamp, o null si el QR no está firmado.
+     */
+    private static String firma(String qr, int finTimestamp, char separador) {
+        if (finTimestamp >= qr.length() - 1 || qr.charAt(finTimestamp) != separador) {
+            return null;
+        }
+        return qr.substring(finTimestamp + 1, finCampo(qr, finTimestamp + 1, separador));
+    }
+
+    private static int finCampo(String qr, int desde, char separador) {
+        int fin = qr.indexOf(separador, desde);
+        return fin < 0 ? qr.length() : fin;
+    }
+
+    /**
+     * Entero no negativo entre [desde, hasta), o INVALIDO si el rango está vacío,
+     * contiene algo que no es dígito o desborda un long.
+     */
+    private static long parsearNumero(String s, int desde, int hasta) {
+        if (desde >= hasta) {
+            return INVALIDO;
+        }
+        long valor = 0;
+        for (int i = desde; i < hasta; i++) {
+            int digito = s.charAt(i) - '0';
+            if (digito < 0 || digito > 9) {
+                return INVALIDO;
+            }
+            if (valor > (Long.MAX_VALUE - digito) / 10) {
+                return INVALIDO;
+            }
+            valor = valor * 10 + digito;
+        }
+        return valor;
+    }
+
+    // ==================== RESULTADO ====================
+
+    /**
+     * Resultado inmutable del análisis. Los campos que no aplican al tipo son null (o 0).
+     */
+    public static final class Resultado {
+        private final Tipo tipo;
+        private final CodigoError error;
+        private final long id;
+        private final String codigo;
+        private final String codigoEvento;
+        private final String nombre;
+        private final String detalle;
+        private final String fecha;
+        private final long timestamp;
+        private final String firma;
+        private final int longitudFirmada;
+
+        private Resultado(CodigoError error) {
+            this(null, error, 0, null, null, null, null, null, 0, null, 0);
+        }
+
+        private Resultado(Tipo tipo, long id, String codigo, String codigoEvento, String nombre,
+                          String detalle, String fecha, long timestamp, String firma, int longitudFirmada) {
+            this(tipo, CodigoError.NINGUNO, id, codigo, codigoEvento, nombre, detalle, fecha, timestamp,
+                    firma, longitudFirmada);
+        }
+
+        private Resultado(Tipo tipo, CodigoError error, long id, String codigo, String codigoEvento,
+                          String nombre, String detalle, String fecha, long timestamp,
+                          String firma, int longitudFirmada) {
+            this.tipo = tipo;
+            this.error = error;
+            this.id = id;
+            this.codigo = codigo;
+            this.codigoEvento = codigoEvento;
+            this.nombre = nombre;
+            this.detalle = detalle;
+            this.fecha = fecha;
+            this.timestamp = timestamp;
+            this.firma = firma;
+            this.longitudFirmada = longitudFirmada;
+        }
+
+        public boolean esValido() { return error == CodigoError.NINGUNO; }
+        public Tipo getTipo() { return tipo; }
+        public CodigoError getError() { return error; }
+        /** ID de estudiante, docente o evento (formatos con '|') */
+        public long getId() { return id; }
+        /** Código de estudiante o docente */
+        public String getCodigo() { return codigo; }
+        /** Código del evento (solo UPeU-ASIST) */
+        public String getCodigoEvento() { return codigoEvento; }
+        /** Nombre de la persona o del evento */
+        public String getNombre() { return nombre; }
+        /** Curso, materia o lugar del evento */
+        public String getDetalle() { return detalle; }
+        /** Fecha del evento (solo EVT) */
+        public String getFecha() { return fecha; }
+        /** Momento de generación del QR en epoch ms */
+        public long getTimestamp() { return timestamp; }
+        /** Firma del QR, o null si no está firmado */
+        public String getFirma() { return firma; }
+        /** Cantidad de caracteres iniciales del texto cubiertos por la firma */
+        public int getLongitudFirmada() { return longitudFirmada; }
+
+        @Override
+        public String toString() {
+            return esValido()
+                    ? String.format("%s[id=%d, codigo=%s, evento=%s, ts=%d]", tipo, id, codigo, codigoEvento, timestamp)
+                    : "ERROR[" + error + "]";
+        }
+    }
+}
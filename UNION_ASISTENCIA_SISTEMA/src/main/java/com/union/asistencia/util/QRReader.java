@@ -1,8 +1,5 @@
 package com.union.asistencia.util;
 
-import com.google.zxing.*;
-import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
-import com.google.zxing.common.HybridBinarizer;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
@@ -16,18 +13,26 @@ public class QRReader {
     public static String leerQRDesdeArchivo(String imagePath) {
         try {
             BufferedImage bufferedImage = ImageIO.read(new File(imagePath));
-            LuminanceSource source = new BufferedImageLuminanceSource(bufferedImage);
-            BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source));
+            String texto = leerQR(bufferedImage);
+            if (texto == null) {
+                System.err.println("Error leyendo QR: no se encontró un código en " + imagePath);
+            }
+            return texto;
 
-            Result result = new MultiFormatReader().decode(bitmap);
-            return result.getText();
-
-        } catch (IOException | NotFoundException e) {
+        } catch (IOException e) {
             System.err.println("Error leyendo QR: " + e.getMessage());
             return null;
         }
     }
 
+    /**
+     * Decodifica el QR de una imagen ya cargada en memoria (p. ej. un fotograma).
+     * Devuelve null si la imagen no contiene un código legible.
+     */
+    public static String leerQR(BufferedImage imagen) {
+        return DecodificadorQR.decodificar(imagen);
+    }
+
     public static String seleccionarYLeerQR() {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Seleccionar código QR escaneado");
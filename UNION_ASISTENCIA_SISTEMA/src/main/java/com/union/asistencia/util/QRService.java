@@ -1,34 +1,20 @@
 package com.union.asistencia.util;
 
-import com.google.zxing.BarcodeFormat;
 import com.google.zxing.WriterException;
-import com.google.zxing.common.BitMatrix;
-import com.google.zxing.qrcode.QRCodeWriter;
-import javafx.embed.swing.SwingFXUtils;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 
-import java.awt.image.BufferedImage;
-
 public class QRService {
 
     public static ImageView generarQR(String data, int width, int height) {
         try {
-            QRCodeWriter qrCodeWriter = new QRCodeWriter();
-            BitMatrix bitMatrix = qrCodeWriter.encode(data, BarcodeFormat.QR_CODE, width, height);
-
-            BufferedImage bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-            for (int x = 0; x < width; x++) {
-                for (int y = 0; y < height; y++) {
-                    bufferedImage.setRGB(x, y, bitMatrix.get(x, y) ? 0x000000 : 0xFFFFFF);
-                }
-            }
-
-            Image image = SwingFXUtils.toFXImage(bufferedImage, null);
+            // Imagen a resolución de módulo; el ImageView la amplía sin suavizado
+            Image image = RenderizadorQR.renderizar(data);
             ImageView imageView = new ImageView(image);
             imageView.setFitWidth(width);
             imageView.setFitHeight(height);
             imageView.setPreserveRatio(true);
+            imageView.setSmooth(false);
 
             return imageView;
 
@@ -39,13 +25,13 @@ public class QRService {
     }
 
     public static String generarDataEstudiante(String id, String codigo, String nombre, String curso) {
-        return String.format("EST|%s|%s|%s|%s|%s",
-                id, codigo, nombre, curso, System.currentTimeMillis());
+        return FirmaQR.firmar(String.format("EST|%s|%s|%s|%s|%s",
+                id, codigo, nombre, curso, System.currentTimeMillis()), '|');
     }
 
     public static String generarDataDocente(String id, String codigo, String nombre, String materia) {
-        return String.format("DOC|%s|%s|%s|%s|%s",
-                id, codigo, nombre, materia, System.currentTimeMillis());
+        return FirmaQR.firmar(String.format("DOC|%s|%s|%s|%s|%s",
+                id, codigo, nombre, materia, System.currentTimeMillis()), '|');
     }
 
     public static QRData procesarQRData(String qrData) {
@@ -53,19 +39,23 @@ public class QRService {
             return null;
         }
 
-        String[] partes = qrData.split("\\|");
-        if (partes.length >= 6) {
-            String tipo = partes[0];
-            String id = partes[1];
-            String codigo = partes[2];
-            String nombre = partes[3];
-            String detalle = partes[4];
-            String timestamp = partes[5];
-
-            return new QRData(tipo, id, codigo, nombre, detalle, timestamp);
+        ParserQR.Resultado resultado = ParserQR.parsear(qrData);
+        if (!resultado.esValido() || !FirmaQR.firmaValida(qrData, resultado)) {
+            return null;
+        }
+        switch (resultado.getTipo()) {
+            case ESTUDIANTE:
+            case DOCENTE:
+                return new QRData(resultado.getTipo() == ParserQR.Tipo.ESTUDIANTE ? "EST" : "DOC",
+                        String.valueOf(resultado.getId()), resultado.getCodigo(), resultado.getNombre(),
+                        resultado.getDetalle(), String.valueOf(resultado.getTimestamp()));
+            case EVENTO:
+                // Mismas posiciones que el formato EVT|ID|NOMBRE|LUGAR|FECHA|TIMESTAMP
+                return new QRData("EVT", String.valueOf(resultado.getId()), resultado.getNombre(),
+                        resultado.getDetalle(), resultado.getFecha(), String.valueOf(resultado.getTimestamp()));
+            default:
+                return null;
         }
-
-        return null;
     }
 
     public static class QRData {
@@ -103,8 +93,8 @@ public class QRService {
     }
 
     public static String generarDataEvento(String eventoId, String nombreEvento, String lugar, String fecha) {
-        return String.format("EVT|%s|%s|%s|%s|%s",
-                eventoId, nombreEvento, lugar, fecha, System.currentTimeMillis());
+        return FirmaQR.firmar(String.format("EVT|%s|%s|%s|%s|%s",
+                eventoId, nombreEvento, lugar, fecha, System.currentTimeMillis()), '|');
     }
 
 
@@ -113,15 +103,11 @@ public class QRService {
             return null;
         }
 
-        String[] partes = qrData.split("\\|");
-        if (partes.length >= 6 && "EVT".equals(partes[0])) {
-            String eventoId = partes[1];
-            String nombreEvento = partes[2];
-            String lugar = partes[3];
-            String fecha = partes[4];
-            String timestamp = partes[5];
-
-            return new EventoQRData(eventoId, nombreEvento, lugar, fecha, timestamp);
+        ParserQR.Resultado resultado = ParserQR.parsear(qrData);
+        if (resultado.esValido() && resultado.getTipo() == ParserQR.Tipo.EVENTO
+                && FirmaQR.firmaValida(qrData, resultado)) {
+            return new EventoQRData(String.valueOf(resultado.getId()), resultado.getNombre(),
+                    resultado.getDetalle(), resultado.getFecha(), String.valueOf(resultado.getTimestamp()));
         }
 
         return null;
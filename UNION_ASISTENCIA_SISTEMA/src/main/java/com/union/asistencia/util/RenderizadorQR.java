@@ -0,0 +1,100 @@
+package com.union.asistencia.util;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Renderizado de códigos QR a resolución de módulo: un píxel por módulo (más la zona
+ * silenciosa), escrito por tramos de fila directamente en un buffer int[] y volcado
+ * de una sola vez al PixelWriter de un WritableImage.
+ *
+ * La ampliación la hace el ImageView en la GPU (fitWidth/fitHeight con smooth=false
+ * para que los bordes de los módulos queden nítidos), así generar un QR cuesta
+ * prácticamente solo la codificación, sin setRGB por píxel ni ida y vuelta por PNG.
+ */
+public final class RenderizadorQR {
+
+    public static final int NEGRO = 0xFF000000;
+    public static final int BLANCO = 0xFFFFFFFF;
+
+    private static final Map<EncodeHintType, Object> HINTS = crearHints();
+
+    private RenderizadorQR() {
+    }
+
+    /**
+     * Codifica el texto como QR a resolución de módulo.
+     */
+    public static BitMatrix codificar(String data) throws WriterException {
+        // Con tamaño 0 ZXing devuelve exactamente un píxel por módulo
+        return new QRCodeWriter().encode(data, BarcodeFormat.QR_CODE, 0, 0, HINTS);
+    }
+
+    /**
+     * Codifica y renderiza el texto en una imagen JavaFX a resolución de módulo.
+     */
+    public static WritableImage renderizar(String data) throws WriterException {
+        return aImagen(codificar(data));
+    }
+
+    /**
+     * Vuelca una matriz ya codificada en una imagen JavaFX, un píxel por módulo.
+     */
+    public static WritableImage aImagen(BitMatrix matriz) {
+        int ancho = matriz.getWidth();
+        int alto = matriz.getHeight();
+        int[] pixeles = aPixeles(matriz, null);
+
+        WritableImage imagen = new WritableImage(ancho, alto);
+        imagen.getPixelWriter().setPixels(0, 0, ancho, alto,
+                PixelFormat.getIntArgbPreInstance(), pixeles, 0, ancho);
+        return imagen;
+    }
+
+    /**
+     * Escribe la matriz en un buffer ARGB (fila por fila, ancho x alto). Reutiliza el
+     * buffer recibido si tiene el tamaño suficiente.
+     */
+    public static int[] aPixeles(BitMatrix matriz, int[] destino) {
+        int ancho = matriz.getWidth();
+        int alto = matriz.getHeight();
+        int[] pixeles = destino != null && destino.length >= ancho * alto ? destino : new int[ancho * alto];
+
+        BitArray fila = new BitArray(ancho);
+        for (int y = 0; y < alto; y++) {
+            fila = matriz.getRow(y, fila);
+            int base = y * ancho;
+            int x = 0;
+            // Se rellenan tramos completos de módulos blancos y negros
+            while (x < ancho) {
+                int inicioNegro = Math.min(fila.getNextSet(x), ancho);
+                Arrays.fill(pixeles, base + x, base + inicioNegro, BLANCO);
+                if (inicioNegro == ancho) {
+                    break;
+                }
+                int finNegro = Math.min(fila.getNextUnset(inicioNegro), ancho);
+                Arrays.fill(pixeles, base + inicioNegro, base + finNegro, NEGRO);
+                x = finNegro;
+            }
+        }
+        return pixeles;
+    }
+
+    private static Map<EncodeHintType, Object> crearHints() {
+        Map<EncodeHintType, Object> hints = new EnumMap<>(EncodeHintType.class);
+        // Nombres con tildes en los QR de estudiante/docente
+        hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
+        return Collections.unmodifiableMap(hints);
+    }
+}
@@ -0,0 +1,91 @@
+package com.union.asistencia.util;
+
+import lombok.extern.java.Log;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Fuente de fotogramas que reproduce una secuencia fija de imágenes en orden,
+ * opcionalmente a una cadencia dada. Sirve para probar el escaneo continuo sin
+ * cámara, reproduciendo capturas grabadas.
+ */
+@Log
+public class SecuenciaImagenesFrameSource implements FrameSource {
+
+    private final List<Path> archivos;
+    private final long intervaloNanos;
+    private int posicion;
+    private long proximoNanos;
+
+    /**
+     * @param archivos Imágenes en el orden en que se entregan
+     * @param fps Cadencia de reproducción; 0 entrega los fotogramas tan rápido como se pidan
+     */
+    public SecuenciaImagenesFrameSource(List<Path> archivos, int fps) {
+        this.archivos = List.copyOf(archivos);
+        this.intervaloNanos = fps > 0 ? TimeUnit.SECONDS.toNanos(1) / fps : 0;
+        this.proximoNanos = System.nanoTime();
+    }
+
+    /**
+     * Crea la secuencia con todas las imágenes de una carpeta, ordenadas por nombre.
+     */
+    public static SecuenciaImagenesFrameSource desdeDirectorio(Path directorio, int fps) throws IOException {
+        try (Stream<Path> stream = Files.list(directorio)) {
+            List<Path> archivos = stream
+                    .filter(DirectorioFrameSource::esImagen)
+                    .sorted()
+                    .collect(Collectors.toList());
+            return new SecuenciaImagenesFrameSource(archivos, fps);
+        }
+    }
+
+    @Override
+    public Fotograma siguiente(long timeoutMs) throws InterruptedException {
+        while (posicion < archivos.size()) {
+            long espera = proximoNanos - System.nanoTime();
+            if (espera > TimeUnit.MILLISECONDS.toNanos(timeoutMs)) {
+                TimeUnit.MILLISECONDS.sleep(timeoutMs);
+                return null;
+            }
+            if (espera > 0) {
+                TimeUnit.NANOSECONDS.sleep(espera);
+            }
+            proximoNanos = Math.max(proximoNanos, System.nanoTime() - intervaloNanos) + intervaloNanos;
+
+            Path archivo = archivos.get(posicion++);
+            try {
+                BufferedImage imagen = ImageIO.read(archivo.toFile());
+                if (imagen != null) {
+                    return new Fotograma(archivo.toString(), imagen);
+                }
+            } catch (IOException e) {
+                log.warning("⚠️ No se pudo leer el fotograma " + archivo + ": " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean agotada() {
+        return posicion >= archivos.size();
+    }
+
+    @Override
+    public String getDescripcion() {
+        return "Secuencia de " + archivos.size() + " imágenes";
+    }
+
+    @Override
+    public void close() {
+        posicion = archivos.size();
+    }
+}
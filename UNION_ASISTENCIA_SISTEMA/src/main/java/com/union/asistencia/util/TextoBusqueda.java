@@ -0,0 +1,41 @@
+package com.union.asistencia.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalización de texto para búsquedas: minúsculas y sin tildes, así "Núñez",
+ * "nunez" y "NUÑEZ" se comparan igual.
+ */
+public final class TextoBusqueda {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+
+    private TextoBusqueda() {
+    }
+
+    public static String normalizar(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return "";
+        }
+        String sinTildes = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return sinTildes.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Une y normaliza varios campos en una sola clave de búsqueda (los nulos se omiten).
+     */
+    public static String clave(String... campos) {
+        StringBuilder clave = new StringBuilder();
+        for (String campo : campos) {
+            if (campo != null && !campo.isEmpty()) {
+                if (clave.length() > 0) {
+                    clave.append(' ');
+                }
+                clave.append(normalizar(campo));
+            }
+        }
+        return clave.toString();
+    }
+}
@@ -0,0 +1,119 @@
+package com.union.asistencia.dao;
+
+import com.union.asistencia.model.ResultadoReporte;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Estadísticas generales sobre una base temporal con datos conocidos. Antes los totales
+ * se calculaban sobre el producto cartesiano de las tablas y con estos datos el total
+ * de asistencias daba 30 en lugar de 2.
+ */
+class ReporteDAOTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2024, 3, 1);
+    private static final LocalDate FIN = LocalDate.of(2024, 3, 31);
+
+    @TempDir
+    static Path directorio;
+
+    @BeforeAll
+    static void prepararBase() throws SQLException {
+        // Debe fijarse antes de que se cargue DatabaseConnection
+        System.setProperty("asistencia.db.url", "jdbc:sqlite:" + directorio.resolve("asistencia-test.db"));
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            // La migración inicial siembra dos docentes; se parte de tablas vacías
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM asistencias");
+                stmt.executeUpdate("DELETE FROM asignaturas");
+                stmt.executeUpdate("DELETE FROM docentes");
+                stmt.executeUpdate("DELETE FROM estudiantes");
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO estudiantes (id, codigo_estudiante, dni, nombre, apellido, carrera, semestre, fecha_nacimiento) " +
+                            "VALUES (?, ?, ?, ?, 'Prueba', 'Ingeniería de Sistemas', 1, '2000-01-01')")) {
+                for (int i = 1; i <= 5; i++) {
+                    stmt.setInt(1, i);
+                    stmt.setString(2, "EST00" + i);
+                    stmt.setString(3, "1000000" + i);
+                    stmt.setString(4, "Estudiante " + i);
+                    stmt.executeUpdate();
+                }
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO docentes (id, codigo_docente, dni, nombre, apellido, email, facultad, fecha_contratacion) " +
+                            "VALUES (?, ?, ?, ?, 'Prueba', ?, 'Ingeniería', '2020-01-01')")) {
+                for (int i = 1; i <= 3; i++) {
+                    stmt.setInt(1, i);
+                    stmt.setString(2, "DOC10" + i);
+                    stmt.setString(3, "2000000" + i);
+                    stmt.setString(4, "Docente " + i);
+                    stmt.setString(5, "docente" + i + "@upeu.edu.pe");
+                    stmt.executeUpdate();
+                }
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO asignaturas (id, codigo_asignatura, nombre, creditos, facultad, docente_id) " +
+                            "VALUES (?, ?, ?, 4, 'Ingeniería', ?)")) {
+                for (int i = 1; i <= 3; i++) {
+                    stmt.setInt(1, i);
+                    stmt.setString(2, "ASG10" + i);
+                    stmt.setString(3, "Asignatura " + i);
+                    stmt.setInt(4, i);
+                    stmt.executeUpdate();
+                }
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO asistencias (fecha_hora, estado, estudiante_id, asignatura_id, docente_id) " +
+                            "VALUES (?, ?, ?, 1, 1)")) {
+                stmt.setString(1, "2024-03-10 08:00:00");
+                stmt.setString(2, "PRESENTE");
+                stmt.setInt(3, 1);
+                stmt.executeUpdate();
+
+                stmt.setString(1, "2024-03-11 08:00:00");
+                stmt.setString(2, "AUSENTE");
+                stmt.setInt(3, 2);
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    @Test
+    void estadisticasGeneralesCuentanCadaTablaPorSeparado() {
+        ResultadoReporte resultado = new ReporteDAO().generarEstadisticasGenerales(INICIO, FIN);
+
+        assertEquals(1, resultado.getFilas());
+        assertEquals(5, resultado.getEntero(resultado.indiceDe("Total Estudiantes"), 0));
+        assertEquals(3, resultado.getEntero(resultado.indiceDe("Total Docentes"), 0));
+        assertEquals(3, resultado.getEntero(resultado.indiceDe("Total Asignaturas"), 0));
+        assertEquals(2, resultado.getEntero(resultado.indiceDe("Total Asistencias"), 0));
+        assertEquals(1, resultado.getEntero(resultado.indiceDe("Asistencias Presentes"), 0));
+        assertEquals(1, resultado.getEntero(resultado.indiceDe("Asistencias Ausentes"), 0));
+        assertEquals(0, resultado.getEntero(resultado.indiceDe("Asistencias Tardanzas"), 0));
+        assertEquals(50.0, resultado.getDecimal(resultado.indiceDe("Porcentaje Asistencia General"), 0), 0.001);
+    }
+
+    @Test
+    void estadisticasGeneralesExcluyenAsistenciasFueraDelPeriodo() {
+        ResultadoReporte resultado = new ReporteDAO().generarEstadisticasGenerales(INICIO, INICIO.plusDays(9));
+
+        assertEquals(1, resultado.getEntero(resultado.indiceDe("Total Asistencias"), 0));
+        assertEquals(100.0, resultado.getDecimal(resultado.indiceDe("Porcentaje Asistencia General"), 0), 0.001);
+    }
+}